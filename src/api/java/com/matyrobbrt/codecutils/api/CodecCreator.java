@@ -4,6 +4,7 @@ import com.google.gson.reflect.TypeToken;
 import com.mojang.serialization.Codec;
 import org.jetbrains.annotations.ApiStatus;
 
+import java.lang.reflect.Type;
 import java.util.ServiceLoader;
 import java.util.function.Consumer;
 
@@ -75,6 +76,31 @@ public interface CodecCreator {
         return getAdapter(type).asCodec();
     }
 
+    /**
+     * Freezes this creator, resolving the adapters of the given {@code types} ahead of time. <br>
+     * The adapters resolved so far are moved into a read-only snapshot, which makes looking them up as cheap as possible.
+     * Adapters for other types can still be created afterwards, but looking them up is slower. <br>
+     * This is meant to be called once the creator is set up, with the types that it will be used for.
+     *
+     * @param types the types to resolve the adapters of
+     * @return this creator
+     * @throws com.matyrobbrt.codecutils.api.exception.CannotCreateAdapter if an adapter for any of the types cannot be created by the creator
+     */
+    CodecCreator freeze(Type... types);
+
+    /**
+     * Creates a new {@linkplain CodecCreator} which starts with the configuration of this creator, and overlays the
+     * configuration of the given {@code consumer} on it. <br>
+     * The derived creator reuses the adapters this creator already created for all the types whose adapters don't
+     * depend on the overlaid configuration, instead of generating them again. Adapters this creator doesn't have yet
+     * are generated by the derived creator. <br>
+     * <strong>Note:</strong> configurators already applied to this creator are not applied again.
+     *
+     * @param consumer the consumer configuring the derived creator
+     * @return the derived creator
+     */
+    CodecCreator derive(Consumer<CodecCreatorConfiguration> consumer);
+
     /**
      * Creates a new {@linkplain CodecCreator}, configured with the {@link CodecCreatorConfiguration#applyBuiltInConfiguration() built-in configuration}.
      *
@@ -94,6 +94,34 @@ public interface CodecCreatorConfiguration {
      */
     <A> CodecCreatorConfiguration withCreator(Class<A> type, ObjectCreator<A> creator);
 
+    /**
+     * Sets how record and class codecs find the values of their fields when decoding. <br>
+     * Defaults to {@link DecodingMode#LOOKUP}.
+     *
+     * @param mode the decoding mode
+     * @return the configuration instance
+     */
+    CodecCreatorConfiguration withDecodingMode(DecodingMode mode);
+
+    /**
+     * Sets how the codecs created by the creator handle errors when decoding. <br>
+     * Defaults to {@link ErrorStrategy#COLLECT_ALL}.
+     *
+     * @param strategy the error strategy
+     * @return the configuration instance
+     */
+    CodecCreatorConfiguration withErrorStrategy(ErrorStrategy strategy);
+
+    /**
+     * Sets whether the codecs created by the creator validate the values of {@link com.matyrobbrt.codecutils.api.annotation.Range}
+     * and {@link com.matyrobbrt.codecutils.api.annotation.ValidateWith} annotated fields when serializing. <br>
+     * Disabling this skips the validation of trusted data, while decoded values are still validated. Defaults to {@code true}.
+     *
+     * @param validate whether to validate values when serializing
+     * @return the configuration instance
+     */
+    CodecCreatorConfiguration withValidationWhenSerializing(boolean validate);
+
     /**
      * Applies the given {@code configurator}.
      *
@@ -147,4 +175,39 @@ public interface CodecCreatorConfiguration {
      * @return the configuration instance
      */
     CodecCreatorConfiguration accept(Consumer<CodecCreatorConfiguration> consumer);
+
+    /**
+     * The ways record and class codecs can find the values of their fields in the decoded map.
+     */
+    enum DecodingMode {
+        /**
+         * Each field is looked up in the map by its key. Best for maps backed by hash lookups.
+         */
+        LOOKUP,
+        /**
+         * The entries of the map are walked once, with each key being dispatched to its field through a table built with the codec.
+         * Best for maps backed by a scan (such as the default {@link com.mojang.serialization.DynamicOps#getMap(Object)}), and for types with many fields.
+         */
+        SINGLE_PASS
+    }
+
+    /**
+     * The ways codecs can handle the errors encountered when decoding.
+     */
+    enum ErrorStrategy {
+        /**
+         * All the values are decoded, and the errors of every value that failed are reported.
+         */
+        COLLECT_ALL,
+        /**
+         * The decoding stops at the first error, which is the only one reported.
+         */
+        FAIL_FAST,
+        /**
+         * The values are decoded without collecting any error messages, and if the decoding fails it is
+         * run again as {@link #COLLECT_ALL} in order to report the errors. <br>
+         * Best when failures are rare, as failed inputs are decoded twice.
+         */
+        OPTIMISTIC
+    }
 }
@@ -1,5 +1,6 @@
 package com.matyrobbrt.codecutils.api;
 
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.reflect.TypeToken;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
@@ -10,6 +11,7 @@ import org.jetbrains.annotations.ApiStatus;
 import javax.annotation.Nullable;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -17,7 +19,7 @@ import java.util.function.Function;
  *
  * @param <A> the type that this adapter encodes/decodes
  */
-public interface CodecTypeAdapter<A> {
+public interface CodecTypeAdapter<A> extends DirectDecoder<A> {
     /**
      * @see Codec#encode(Object, DynamicOps, Object)
      */
@@ -28,41 +30,37 @@ public interface CodecTypeAdapter<A> {
      */
     <T> DataResult<Pair<A, T>> decode(final DynamicOps<T> ops, final T input);
 
+    /**
+     * Decodes the {@code input} directly. Adapters should override this method when they can avoid creating a {@link DataResult}.
+     *
+     * @see DirectDecoder#decodeDirect(DynamicOps, Object, ErrorSink)
+     */
+    @Nullable
+    @Override
+    default <T> A decodeDirect(final DynamicOps<T> ops, final T input, final ErrorSink errors) {
+        return errors.unwrapDecoded(decode(ops, input));
+    }
+
     default <S> CodecTypeAdapter<S> xmap(final Function<? super A, ? extends S> to, final Function<? super S, ? extends A> from) {
-        final CodecTypeAdapter<A> thisInstance = this;
-        return new CodecTypeAdapter<>() {
-            @Override
-            public <T> DataResult<T> encode(S input, DynamicOps<T> ops, T prefix) {
-                return thisInstance.encode(from.apply(input), ops, prefix);
-            }
-
-            @Override
-            public <T> DataResult<Pair<S, T>> decode(DynamicOps<T> ops, T input) {
-                return thisInstance.decode(ops, input).map(p -> p.mapFirst(to));
-            }
-        };
+        return FusedTypeAdapter.map(this, to, from, false);
     }
 
     default <S> CodecTypeAdapter<S> flatXmap(final Function<? super A, ? extends DataResult<? extends S>> to, final Function<? super S, ? extends DataResult<? extends A>> from) {
-        final CodecTypeAdapter<A> thisInstance = this;
-        return new CodecTypeAdapter<>() {
-            @Override
-            public <T> DataResult<T> encode(S input, DynamicOps<T> ops, T prefix) {
-                return from.apply(input).flatMap(s -> thisInstance.encode(s, ops, prefix));
-            }
-
-            @Override
-            public <T> DataResult<Pair<S, T>> decode(DynamicOps<T> ops, T input) {
-                return thisInstance.decode(ops, input).flatMap(p -> to.apply(p.getFirst()).map(r -> Pair.of(r, p.getSecond())));
-            }
-        };
+        return FusedTypeAdapter.map(this, to, from, true);
     }
 
+    /**
+     * {@return a codec wrapping this adapter}
+     * The codec is cached, so repeated calls return the same instance as long as it is in use.
+     */
     default Codec<A> asCodec() {
-        return new CodecFromAdapter<>(this);
+        return CodecFromAdapter.of(this);
     }
 
     static <A> CodecTypeAdapter<A> fromCodec(Codec<A> codec) {
+        if (codec instanceof CodecFromAdapter<A> fromAdapter) {
+            return fromAdapter.adapter();
+        }
         return new WrappingCodec<>(codec);
     }
 
@@ -94,6 +92,15 @@ public interface CodecTypeAdapter<A> {
             return null;
         }
 
+        /**
+         * {@return the raw type that this factory can create adapters for, or {@code null} if it may create adapters for any type}
+         * Factories declaring a raw type will only be asked to create adapters for that type and its subtypes.
+         */
+        @Nullable
+        default Class<?> rawType() {
+            return null;
+        }
+
         @ApiStatus.Internal
         @Retention(RetentionPolicy.RUNTIME)
         @interface Register {
@@ -123,6 +130,11 @@ public interface CodecTypeAdapter<A> {
             return codec.decode(ops, input);
         }
 
+        @Override
+        public <T> A decodeDirect(DynamicOps<T> ops, T input, ErrorSink errors) {
+            return DirectDecoder.decode(codec, ops, input, errors);
+        }
+
         @Override
         public Codec<A> asCodec() {
             return codec;
@@ -133,6 +145,17 @@ public interface CodecTypeAdapter<A> {
      * A codec wrapping a type adapter.
      */
     record CodecFromAdapter<A>(CodecTypeAdapter<A> adapter) implements Codec<A> {
+        // Keyed by identity. The codecs reference their adapters, so they are weak too, or the adapters would never be collected
+        private static final Map<CodecTypeAdapter<?>, Codec<?>> CODECS = CacheBuilder.newBuilder()
+                .weakKeys().weakValues().<CodecTypeAdapter<?>, Codec<?>>build().asMap();
+
+        /**
+         * {@return the cached codec wrapping the {@code adapter}}
+         */
+        @SuppressWarnings("unchecked")
+        public static <A> Codec<A> of(CodecTypeAdapter<A> adapter) {
+            return (Codec<A>) CODECS.computeIfAbsent(adapter, CodecFromAdapter::new);
+        }
 
         @Override
         public <T> DataResult<Pair<A, T>> decode(DynamicOps<T> ops, T input) {
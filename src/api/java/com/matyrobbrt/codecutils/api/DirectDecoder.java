@@ -0,0 +1,184 @@
+package com.matyrobbrt.codecutils.api;
+
+import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration.ErrorStrategy;
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.Decoder;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.MapLike;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A decoder which can decode values directly, without wrapping them in a {@link DataResult} and a {@link Pair}. <br>
+ * Errors are instead reported to an {@link ErrorSink}, which can be shared by all the decoders used to decode an object. <br>
+ * This is only used internally, between the codecs created by CodecUtils, while {@link Codec#decode(DynamicOps, Object)}
+ * remains the public entry point.
+ *
+ * @param <A> the type that this decoder decodes
+ */
+public interface DirectDecoder<A> {
+    /**
+     * Decodes the {@code input}.
+     *
+     * @param ops    the ops of the input
+     * @param input  the input to decode
+     * @param errors the sink to report errors to
+     * @param <T>    the type of the input
+     * @return the decoded value, or if the decoding failed, the partial value or {@code null}
+     */
+    @Nullable
+    <T> A decodeDirect(DynamicOps<T> ops, T input, ErrorSink errors);
+
+    /**
+     * Decodes the {@code input} with the given {@code decoder}, directly if the decoder supports it.
+     *
+     * @see #decodeDirect(DynamicOps, Object, ErrorSink)
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static <A, T> A decode(Decoder<A> decoder, DynamicOps<T> ops, T input, ErrorSink errors) {
+        if (decoder instanceof DirectDecoder<?> direct) {
+            return ((DirectDecoder<A>) direct).decodeDirect(ops, input, errors);
+        } else if (decoder instanceof CodecTypeAdapter.CodecFromAdapter<A> fromAdapter) {
+            return fromAdapter.adapter().decodeDirect(ops, input, errors);
+        } else if (decoder instanceof MapCodec.MapCodecCodec<A> mapCodec && mapCodec.codec() instanceof OfMap<?> direct) {
+            final MapLike<T> map = errors.unwrap(ops.getMap(input));
+            return map == null ? null : ((OfMap<A>) direct).decodeDirect(ops, map, errors);
+        }
+        return errors.unwrapDecoded(decoder.decode(ops, input));
+    }
+
+    /**
+     * A {@link MapCodec} counterpart of {@link DirectDecoder}. <br>
+     * The {@link MapCodec#codec() codecs} of map codecs implementing this interface will be decoded directly.
+     *
+     * @param <A> the type that this decoder decodes
+     */
+    interface OfMap<A> {
+        /**
+         * @see DirectDecoder#decodeDirect(DynamicOps, Object, ErrorSink)
+         */
+        @Nullable
+        <T> A decodeDirect(DynamicOps<T> ops, MapLike<T> input, ErrorSink errors);
+    }
+
+    /**
+     * Collects the errors reported while decoding, according to an {@link ErrorStrategy}.
+     */
+    class ErrorSink {
+        private final ErrorStrategy strategy;
+        private int errorCount;
+        @Nullable
+        private List<String> messages;
+
+        public ErrorSink() {
+            this(ErrorStrategy.COLLECT_ALL);
+        }
+
+        public ErrorSink(ErrorStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        /**
+         * Decodes a value using a sink with the given {@code strategy}, decoding it again with a
+         * {@link ErrorStrategy#COLLECT_ALL} sink if the strategy is {@link ErrorStrategy#OPTIMISTIC} and the decoding failed.
+         *
+         * @param decoder a function decoding the value and reporting errors to the given sink
+         * @return the result of the decoding
+         * @see #toResult(Object)
+         */
+        public static <A> DataResult<A> decode(ErrorStrategy strategy, Function<ErrorSink, A> decoder) {
+            ErrorSink errors = new ErrorSink(strategy);
+            A value = decoder.apply(errors);
+            if (strategy == ErrorStrategy.OPTIMISTIC && errors.failed()) {
+                errors = new ErrorSink();
+                value = decoder.apply(errors);
+            }
+            return errors.toResult(value);
+        }
+
+        public void error(String message) {
+            errorCount++;
+            // Optimistic sinks are rerun in order to collect the messages
+            if (strategy != ErrorStrategy.OPTIMISTIC) {
+                if (messages == null) messages = new ArrayList<>(2);
+                messages.add(message);
+            }
+        }
+
+        public boolean failed() {
+            return errorCount != 0;
+        }
+
+        /**
+         * {@return whether the decoding should stop, as an error was reported to a {@link ErrorStrategy#FAIL_FAST} sink}
+         * Decoders may return {@code null} without decoding the rest of the input when this is the case.
+         */
+        public boolean aborted() {
+            return errorCount != 0 && strategy == ErrorStrategy.FAIL_FAST;
+        }
+
+        /**
+         * {@return the amount of errors reported so far}
+         * This can be compared before and after decoding a value in order to determine if that value failed to decode.
+         */
+        public int errorCount() {
+            return errorCount;
+        }
+
+        public ErrorStrategy strategy() {
+            return strategy;
+        }
+
+        /**
+         * {@return the reported errors, joined}
+         */
+        public String message() {
+            return messages == null ? "" : String.join("; ", messages);
+        }
+
+        /**
+         * Unwraps the given {@code result}, reporting its error if it is not successful.
+         *
+         * @return the value of the result, or its partial value or {@code null} if it is not successful
+         */
+        @Nullable
+        public <A> A unwrap(DataResult<A> result) {
+            final Optional<A> value = result.result();
+            if (value.isPresent()) {
+                return value.get();
+            }
+            final DataResult.PartialResult<A> error = result.error().orElseThrow();
+            error(error.message());
+            return error.partialResult().orElse(null);
+        }
+
+        /**
+         * Unwraps the given {@code result} of a {@link Decoder}, discarding the remaining input.
+         *
+         * @see #unwrap(DataResult)
+         */
+        @Nullable
+        public <A> A unwrapDecoded(DataResult<? extends Pair<A, ?>> result) {
+            final Pair<A, ?> pair = unwrap(result);
+            return pair == null ? null : pair.getFirst();
+        }
+
+        /**
+         * {@return a result containing the given {@code value}, which is partial if any errors were reported}
+         */
+        public <A> DataResult<A> toResult(@Nullable A value) {
+            if (errorCount == 0) {
+                return DataResult.success(value);
+            }
+            return value == null ? DataResult.error(message()) : DataResult.error(message(), value);
+        }
+    }
+}
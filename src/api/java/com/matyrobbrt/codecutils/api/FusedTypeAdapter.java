@@ -0,0 +1,122 @@
+package com.matyrobbrt.codecutils.api;
+
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * An adapter applying a chain of {@link CodecTypeAdapter#xmap(Function, Function) xmap} and
+ * {@link CodecTypeAdapter#flatXmap(Function, Function) flatXmap} stages to a base adapter. <br>
+ * Mapping a fused adapter appends a stage instead of wrapping it again, so that a value goes through a single adapter
+ * no matter how many stages are chained.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class FusedTypeAdapter<A> implements CodecTypeAdapter<A> {
+    private final CodecTypeAdapter<?> base;
+    // The stages, in the order they are applied when decoding. Encoders are applied in reverse order
+    private final Function[] decoders;
+    private final Function[] encoders;
+    // Whether the stage at each index returns a DataResult
+    private final boolean[] flat;
+    @Nullable
+    private Codec<A> codec;
+
+    private FusedTypeAdapter(CodecTypeAdapter<?> base, Function[] decoders, Function[] encoders, boolean[] flat) {
+        this.base = base;
+        this.decoders = decoders;
+        this.encoders = encoders;
+        this.flat = flat;
+    }
+
+    static <A, S> CodecTypeAdapter<S> map(CodecTypeAdapter<A> adapter, Function<? super A, ?> to, Function<? super S, ?> from, boolean flat) {
+        if (adapter instanceof FusedTypeAdapter<A> fused) {
+            final int length = fused.decoders.length;
+            final Function[] decoders = Arrays.copyOf(fused.decoders, length + 1);
+            final Function[] encoders = Arrays.copyOf(fused.encoders, length + 1);
+            final boolean[] flats = Arrays.copyOf(fused.flat, length + 1);
+            decoders[length] = to;
+            encoders[length] = from;
+            flats[length] = flat;
+            return new FusedTypeAdapter<>(fused.base, decoders, encoders, flats);
+        }
+        return new FusedTypeAdapter<>(adapter, new Function[] {to}, new Function[] {from}, new boolean[] {flat});
+    }
+
+    @Override
+    public <T> DataResult<T> encode(A input, DynamicOps<T> ops, T prefix) {
+        final CodecTypeAdapter<Object> base = (CodecTypeAdapter<Object>) this.base;
+        Object value = input;
+        DataResult<Object> result = null;
+        for (int i = encoders.length - 1; i >= 0; i--) {
+            if (result == null) {
+                if (flat[i]) {
+                    final DataResult<Object> stage = (DataResult<Object>) encoders[i].apply(value);
+                    final Optional<Object> success = stage.result();
+                    if (success.isPresent()) {
+                        value = success.get();
+                    } else {
+                        result = stage;
+                    }
+                } else {
+                    value = encoders[i].apply(value);
+                }
+            } else {
+                result = flat[i] ? result.flatMap(encoders[i]) : result.map(encoders[i]);
+            }
+        }
+        return result == null ? base.encode(value, ops, prefix) : result.flatMap(v -> base.encode(v, ops, prefix));
+    }
+
+    @Override
+    public <T> DataResult<Pair<A, T>> decode(DynamicOps<T> ops, T input) {
+        return base.decode(ops, input).flatMap(p -> applyDecoders(p.getFirst()).map(r -> Pair.of(r, p.getSecond())));
+    }
+
+    private DataResult<A> applyDecoders(Object value) {
+        DataResult<Object> result = null;
+        for (int i = 0; i < decoders.length; i++) {
+            if (result == null) {
+                if (flat[i]) {
+                    final DataResult<Object> stage = (DataResult<Object>) decoders[i].apply(value);
+                    final Optional<Object> success = stage.result();
+                    if (success.isPresent()) {
+                        value = success.get();
+                    } else {
+                        result = stage;
+                    }
+                } else {
+                    value = decoders[i].apply(value);
+                }
+            } else {
+                result = flat[i] ? result.flatMap(decoders[i]) : result.map(decoders[i]);
+            }
+        }
+        return result == null ? DataResult.success((A) value) : (DataResult<A>) (DataResult) result;
+    }
+
+    @Nullable
+    @Override
+    public <T> A decodeDirect(DynamicOps<T> ops, T input, ErrorSink errors) {
+        Object value = base.decodeDirect(ops, input, errors);
+        for (int i = 0; i < decoders.length && value != null; i++) {
+            value = flat[i] ? errors.unwrap((DataResult<Object>) decoders[i].apply(value)) : decoders[i].apply(value);
+        }
+        return (A) value;
+    }
+
+    @Override
+    public Codec<A> asCodec() {
+        // Skips the lookup of the shared cache
+        Codec<A> codec = this.codec;
+        if (codec == null) {
+            this.codec = codec = CodecFromAdapter.of(this);
+        }
+        return codec;
+    }
+}
@@ -0,0 +1,25 @@
+package com.matyrobbrt.codecutils.api.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotate a record with this annotation in order to have its codec generated at compile time, by the annotation
+ * processor shipped in the {@code processor} artifact of CodecUtils. <br>
+ * The codec of the record follows the same rules as any other record codec, but reads its components and creates
+ * its instances through plain Java code instead of a class generated at runtime. <br>
+ * The record, and the classes enclosing it, must not be {@code private}.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GenerateCodec {
+    /**
+     * The suffix of the name of the generated codec classes. The codec of a record named {@code Name} is
+     * generated in the {@code Name$$Codec} class, in the same package.
+     */
+    String SUFFIX = "$$Codec";
+}
@@ -9,6 +9,11 @@ public final class CannotCreateAdapter extends RuntimeException {
         this.type = type;
     }
 
+    public CannotCreateAdapter(TypeToken<?> type, Throwable cause) {
+        super("Cannot create adapter for class " + type, cause);
+        this.type = type;
+    }
+
     public TypeToken<?> getType() {
         return type;
     }
@@ -10,6 +10,8 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 
 public class Codecs {
+    public static final Codec<Character> CHAR = Codec.STRING.flatXmap(Codecs::parseChar, character -> DataResult.success(character.toString()));
+
     @SuppressWarnings("rawtypes")
     public static final Function SUCCESS = success();
     public static <T> Function<T, DataResult<T>> success() {
@@ -34,6 +36,12 @@ public class Codecs {
         return codec.flatXmap(ver, ver);
     }
 
+    public static DataResult<Character> parseChar(String string) {
+        return string.length() != 1 ?
+                DataResult.error("Expected one character but found a string of length " + string.length()) :
+                DataResult.success(string.charAt(0));
+    }
+
     public static <T> Codec<List<T>> singleOrList(Codec<T> codec) {
         return Codec.either(codec, codec.listOf()).xmap(
                 it -> it.map(List::of, Function.identity()),
@@ -1,28 +1,36 @@
 package com.matyrobbrt.codecutils.codecs;
 
+import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration.ErrorStrategy;
+import com.matyrobbrt.codecutils.api.DirectDecoder;
 import com.mojang.datafixers.util.Pair;
-import com.mojang.datafixers.util.Unit;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.DynamicOps;
 import com.mojang.serialization.Lifecycle;
 import com.mojang.serialization.ListBuilder;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
-public final class CollectionCodec<A, C extends Collection<A>> implements Codec<C> {
+public final class CollectionCodec<A, C extends Collection<A>> implements Codec<C>, DirectDecoder<C> {
     private final Codec<A> elementCodec;
     private final Supplier<? extends C> collectionSupplier;
     private final Class<?> type;
+    private final ErrorStrategy errorStrategy;
 
     public CollectionCodec(final Codec<A> elementCodec, Supplier<? extends C> collectionSupplier) {
+        this(elementCodec, collectionSupplier, ErrorStrategy.COLLECT_ALL);
+    }
+
+    public CollectionCodec(final Codec<A> elementCodec, Supplier<? extends C> collectionSupplier, ErrorStrategy errorStrategy) {
         this.elementCodec = elementCodec;
         this.collectionSupplier = collectionSupplier;
         this.type = collectionSupplier.get().getClass();
+        this.errorStrategy = errorStrategy;
     }
 
     @Override
@@ -38,26 +46,46 @@ public final class CollectionCodec<A, C extends Collection<A>> implements Codec<
 
     @Override
     public <T> DataResult<Pair<C, T>> decode(final DynamicOps<T> ops, final T input) {
-        return ops.getList(input).setLifecycle(Lifecycle.stable()).flatMap(stream -> {
-            final C col = collectionSupplier.get();
-            final Stream.Builder<T> failed = Stream.builder();
-            final AtomicReference<DataResult<Unit>> result = new AtomicReference<>(DataResult.success(Unit.INSTANCE, Lifecycle.stable()));
+        ErrorSink errors = new ErrorSink(errorStrategy);
+        // Optimistic decoding doesn't collect the failed elements, which are only collected if it's run again
+        Stream.Builder<T> failed = errorStrategy == ErrorStrategy.OPTIMISTIC ? null : Stream.builder();
+        C col = decodeElements(ops, input, errors, failed);
+        if (errorStrategy == ErrorStrategy.OPTIMISTIC && errors.failed()) {
+            errors = new ErrorSink();
+            failed = Stream.builder();
+            col = decodeElements(ops, input, errors, failed);
+        }
+        if (col == null) {
+            return DataResult.error(errors.message(), Lifecycle.stable());
+        }
 
-            stream.accept(t -> {
-                final DataResult<Pair<A, T>> element = elementCodec.decode(ops, t);
-                element.error().ifPresent(e -> failed.add(t));
-                result.setPlain(result.getPlain().apply2stable((r, v) -> {
-                    col.add(v.getFirst());
-                    return r;
-                }, element));
-            });
+        final Pair<C, T> pair = Pair.of(col, failed == null ? ops.emptyList() : ops.createList(failed.build()));
+        return errors.failed() ? DataResult.error(errors.message(), pair, Lifecycle.stable()) : DataResult.success(pair, Lifecycle.stable());
+    }
+
+    @Override
+    public <T> C decodeDirect(final DynamicOps<T> ops, final T input, final ErrorSink errors) {
+        return decodeElements(ops, input, errors, null);
+    }
 
-            final T errors = ops.createList(failed.build());
+    @Nullable
+    private <T> C decodeElements(final DynamicOps<T> ops, final T input, final ErrorSink errors, @Nullable final Stream.Builder<T> failed) {
+        final Consumer<Consumer<T>> list = errors.unwrap(ops.getList(input));
+        if (list == null) return null;
 
-            final Pair<C, T> pair = Pair.of(col, errors);
+        final C col = collectionSupplier.get();
+        list.accept(t -> {
+            if (errors.aborted()) return;
 
-            return result.getPlain().map(unit -> pair).setPartial(pair);
+            final int errorCount = errors.errorCount();
+            final A element = DirectDecoder.decode(elementCodec, ops, t, errors);
+            if (errors.errorCount() != errorCount) {
+                if (failed != null) failed.add(t);
+                if (element == null) return;
+            }
+            col.add(element);
         });
+        return col;
     }
 
     @Override
@@ -0,0 +1,18 @@
+package com.matyrobbrt.codecutils.codecs;
+
+import com.matyrobbrt.codecutils.api.DirectDecoder;
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+
+/**
+ * A {@link Codec} whose decoding is implemented by {@link #decodeDirect(DynamicOps, Object, ErrorSink)}.
+ */
+public interface DirectCodec<A> extends Codec<A>, DirectDecoder<A> {
+    @Override
+    default <T> DataResult<Pair<A, T>> decode(DynamicOps<T> ops, T input) {
+        final ErrorSink errors = new ErrorSink();
+        return errors.toResult(decodeDirect(ops, input, errors)).map(value -> Pair.of(value, ops.empty()));
+    }
+}
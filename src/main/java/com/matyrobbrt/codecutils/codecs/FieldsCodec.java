@@ -1,7 +1,10 @@
 package com.matyrobbrt.codecutils.codecs;
 
+import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration.ErrorStrategy;
+import com.matyrobbrt.codecutils.api.DirectDecoder;
 import com.matyrobbrt.codecutils.invoke.FieldReader;
 import com.matyrobbrt.codecutils.invoke.FieldWriter;
+import com.matyrobbrt.codecutils.impl.AllocatingInstanceCreator;
 import com.matyrobbrt.codecutils.impl.InstanceCreator;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.DataResult;
@@ -11,87 +14,426 @@ import com.mojang.serialization.Encoder;
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.MapLike;
 import com.mojang.serialization.RecordBuilder;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
-public class FieldsCodec<Z> extends MapCodec<Z> {
+public class FieldsCodec<Z> extends MapCodec<Z> implements DirectDecoder.OfMap<Z> {
+    /**
+     * Marker returned by {@link #decodeValue(int, DynamicOps, MapLike, DecodingContext)} when no value should be written to the field.
+     */
+    public static final Object SKIP = new Object();
+    private static final int MAX_CACHED_OPS = 4;
+
     private final List<BoundField<Z, ?>> fields;
+    private final BoundField<Z, ?>[] fieldArray;
+    private final boolean[] unboxed;
     private final InstanceCreator<Z> instanceCreator;
+    private final ErrorStrategy errorStrategy;
+    @Nullable
+    private final Object2IntMap<String> keyIndex;
+    // The keys of the fields, created by the most recently used ops. Ops are compared by identity
+    private volatile EncodedKeys[] encodedKeys = new EncodedKeys[0];
 
     public FieldsCodec(List<BoundField<Z, ?>> fields, InstanceCreator<Z> instanceCreator) {
+        this(fields, instanceCreator, false, ErrorStrategy.COLLECT_ALL);
+    }
+
+    /**
+     * @param singlePass    if {@code true}, the entries of the input will be walked once when decoding, and dispatched
+     *                      to their fields, instead of looking up each field in the input
+     * @param errorStrategy the strategy used to handle errors when this codec is decoded directly, and not as part of another value
+     */
+    @SuppressWarnings("unchecked")
+    public FieldsCodec(List<BoundField<Z, ?>> fields, InstanceCreator<Z> instanceCreator, boolean singlePass, ErrorStrategy errorStrategy) {
         this.fields = fields;
+        this.fieldArray = fields.toArray(BoundField[]::new);
+        this.unboxed = new boolean[fieldArray.length];
+        for (int i = 0; i < fieldArray.length; i++) {
+            unboxed[i] = fieldArray[i] instanceof BoundField.ForField<?, ?> field && field.getPrimitiveType() != null;
+        }
         this.instanceCreator = instanceCreator;
+        this.errorStrategy = errorStrategy;
+        this.keyIndex = singlePass ? createKeyIndex(fieldArray) : null;
+    }
+
+    @Nullable
+    private static Object2IntMap<String> createKeyIndex(BoundField<?, ?>[] fields) {
+        final Object2IntMap<String> index = new Object2IntOpenHashMap<>(fields.length);
+        index.defaultReturnValue(-1);
+        for (int i = 0; i < fields.length; i++) {
+            // Fields sharing a key can't be dispatched to, so look them up instead
+            if (index.put(fields[i].getName(), i) != -1) return null;
+        }
+        return index;
     }
 
     @Override
     public <T> Stream<T> keys(DynamicOps<T> ops) {
-        return fields.stream()
-                .map(f -> ops.createString(f.getName()));
+        return Stream.of(encodedKeys(ops));
+    }
+
+    /**
+     * {@return the keys of the fields, created by the given {@code ops}}
+     * The keys are cached for the last {@value #MAX_CACHED_OPS} ops that were used, so they should not be mutated.
+     */
+    @SuppressWarnings("unchecked")
+    protected final <T> T[] encodedKeys(DynamicOps<T> ops) {
+        final EncodedKeys[] cached = encodedKeys;
+        for (final EncodedKeys keys : cached) {
+            if (keys.ops() == ops) return (T[]) keys.keys();
+        }
+
+        final Object[] keys = new Object[fieldArray.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ops.createString(fieldArray[i].getName());
+        }
+        // The least recently created keys are evicted first
+        final EncodedKeys[] newCache = new EncodedKeys[Math.min(cached.length + 1, MAX_CACHED_OPS)];
+        newCache[0] = new EncodedKeys(ops, keys);
+        System.arraycopy(cached, 0, newCache, 1, newCache.length - 1);
+        encodedKeys = newCache;
+        return (T[]) keys;
     }
 
     @Override
     public <T> DataResult<Z> decode(DynamicOps<T> ops, MapLike<T> input) {
-        final List<String> messages = new ArrayList<>();
+        DecodingContext context = new DecodingContext(errorStrategy);
+        Z result = decode(ops, input, context);
+        if (errorStrategy == ErrorStrategy.OPTIMISTIC && context.failed()) {
+            // Decode again in order to collect the errors
+            context = new DecodingContext(ErrorStrategy.COLLECT_ALL);
+            result = decode(ops, input, context);
+        }
+        return context.toResult(result);
+    }
+
+    @Override
+    public <T> Z decodeDirect(DynamicOps<T> ops, MapLike<T> input, DirectDecoder.ErrorSink errors) {
+        final DecodingContext context = new DecodingContext(errors.strategy());
+        final Z result = decode(ops, input, context);
+        if (context.failed()) {
+            errors.error(context.message());
+        }
+        return result;
+    }
+
+    /**
+     * @return the decoded object, or the partial object or {@code null} if the decoding failed
+     */
+    @Nullable
+    private <T> Z decode(DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
         try {
-            final InstanceCreator.Acceptor<Z> acceptor = instanceCreator.create();
-            for (final BoundField<Z, ?> field : fields) {
-                try {
-                    final String message = decodeField(field, acceptor, ops, input);
-                    if (message != null) {
-                        messages.add(message);
-                    }
-                } catch (Throwable e) {
-                    messages.add(e.getMessage());
-                }
+            if (keyIndex != null) {
+                context.values = collectValues(ops, input);
             }
+            final Z result = decodeFields(ops, input, context);
+            return context.failed() && !instanceCreator.supportsPartialResults() ? null : result;
+        } catch (Throwable e) {
+            // Field errors take priority, as they're usually the cause of the exception
+            if (!context.failed()) {
+                context.error(e.getMessage());
+            }
+            return null;
+        }
+    }
 
-            if (messages.isEmpty()) {
-                return DataResult.success(acceptor.finish());
+    // Walks the input once, storing the value of each field at its index
+    private <T> Object[] collectValues(DynamicOps<T> ops, MapLike<T> input) {
+        final Object[] values = new Object[fieldArray.length];
+        final Iterator<Pair<T, T>> entries = input.entries().iterator();
+        while (entries.hasNext()) {
+            final Pair<T, T> entry = entries.next();
+            final String key = ops.getStringValue(entry.getFirst()).result().orElse(null);
+            if (key != null) {
+                final int index = keyIndex.getInt(key);
+                if (index != -1) {
+                    values[index] = entry.getSecond();
+                }
             }
+        }
+        return values;
+    }
 
-            final Z partial = acceptor.finishNow();
-            final String msg = String.join("; ", messages);
-            if (partial == null) {
-                return DataResult.error(msg);
+    /**
+     * {@return the value of the field with the given {@code index} in the input, or {@code null} if not present}
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> T rawValue(int index, MapLike<T> input, DecodingContext context) {
+        return context.values == null ? input.get(fieldArray[index].getName()) : (T) context.values[index];
+    }
+
+    /**
+     * Decodes all the fields and creates the object. <br>
+     * Errors should be reported to the {@code context}, and the returned object, if any, is considered partial when the context failed.
+     * Generated codecs override this method with a straight-line implementation.
+     */
+    @Nullable
+    protected <T> Z decodeFields(DynamicOps<T> ops, MapLike<T> input, DecodingContext context) throws Throwable {
+        final InstanceCreator.Acceptor<Z> acceptor = instanceCreator.create();
+        for (int i = 0; i < fieldArray.length && !context.aborted(); i++) {
+            try {
+                acceptValue(fieldArray[i], acceptor, decodeValue(i, ops, input, context));
+            } catch (Throwable e) {
+                context.error(e.getMessage());
             }
-            return DataResult.error(msg, partial);
+        }
+        return context.failed() ? acceptor.finishNow() : acceptor.finish();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <Z, T> void acceptValue(BoundField<Z, T> field, InstanceCreator.Acceptor<Z> acceptor, Object value) throws Throwable {
+        if (value != SKIP) acceptor.accept(field, (T) value);
+    }
+
+    /**
+     * Decodes the value of the field with the given {@code index}.
+     *
+     * @return the decoded value, the partial value if the decoding failed, or {@link #SKIP} if there's no value to write
+     */
+    @Nullable
+    protected final <T> Object decodeValue(int index, DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
+        if (context.aborted()) return SKIP;
+        try {
+            return fieldArray[index].decodeDirect(ops, rawValue(index, input, context), context);
         } catch (Throwable e) {
-            return DataResult.error(e.getMessage());
+            context.error(e.getMessage());
+            return SKIP;
         }
     }
 
-    private <T, O> @Nullable String decodeField(BoundField<Z, T> field, InstanceCreator.Acceptor<Z> acceptor, DynamicOps<O> ops, MapLike<O> input) throws Throwable {
-        final DataResult<T> result = field.decode(ops, input);
-        if (result == null) return null;
+    /**
+     * Decodes the value of the field with the given {@code index}, to be used as a constructor argument.
+     *
+     * @return the decoded value, or {@code null} if the decoding failed
+     */
+    @Nullable
+    protected final <T> Object decodeArgument(int index, DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
+        final Object value = decodeValue(index, ops, input, context);
+        return value == SKIP ? null : value;
+    }
+
+    // Primitive counterparts of decodeArgument, which don't box the value if the field uses the built-in codec of its type.
+    // The context is marked as skipped if there's no value to write
+
+    protected final <T> int decodeInt(int index, DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
+        final Object value = decodePrimitive(index, ops, input, context);
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    protected final <T> long decodeLong(int index, DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
+        final Object value = decodePrimitive(index, ops, input, context);
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    protected final <T> double decodeDouble(int index, DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
+        final Object value = decodePrimitive(index, ops, input, context);
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+
+    protected final <T> float decodeFloat(int index, DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
+        final Object value = decodePrimitive(index, ops, input, context);
+        return value == null ? 0 : ((Number) value).floatValue();
+    }
+
+    protected final <T> boolean decodeBoolean(int index, DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
+        final Object value = decodePrimitive(index, ops, input, context);
+        return value != null && (Boolean) value;
+    }
+
+    protected final <T> byte decodeByte(int index, DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
+        final Object value = decodePrimitive(index, ops, input, context);
+        return value == null ? 0 : ((Number) value).byteValue();
+    }
+
+    protected final <T> short decodeShort(int index, DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
+        final Object value = decodePrimitive(index, ops, input, context);
+        return value == null ? 0 : ((Number) value).shortValue();
+    }
+
+    protected final <T> char decodeChar(int index, DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
+        final Object value = decodePrimitive(index, ops, input, context);
+        return value == null ? 0 : (Character) value;
+    }
 
-        if (result.error().isPresent()) {
-            final DataResult.PartialResult<T> partialResult = result.error().get();
-            final T partial = result.resultOrPartial(e -> {}).orElse(null);
-            if (partial != null) acceptor.acceptPartial(field, partial);
-            return partialResult.message();
+    @Nullable
+    private <T> Object decodePrimitive(int index, DynamicOps<T> ops, MapLike<T> input, DecodingContext context) {
+        Object value;
+        if (context.aborted()) {
+            value = null;
+        } else if (unboxed[index]) {
+            try {
+                value = ((BoundField.ForField<Z, ?>) fieldArray[index]).decodePrimitive(ops, rawValue(index, input, context), context);
+            } catch (Throwable e) {
+                context.error(e.getMessage());
+                value = null;
+            }
+        } else {
+            value = decodeValue(index, ops, input, context);
         }
-        acceptor.accept(field, result.get().orThrow());
-        return null;
+        context.skipped = value == null || value == SKIP;
+        return context.skipped ? null : value;
+    }
+
+    /**
+     * {@return a new, empty, instance of the decoded object}
+     * Only codecs created with an {@link AllocatingInstanceCreator} can allocate instances.
+     */
+    protected final Z allocate() throws Throwable {
+        return ((AllocatingInstanceCreator<Z>) instanceCreator).allocate();
     }
 
     @Override
     public <T> RecordBuilder<T> encode(Z input, DynamicOps<T> ops, RecordBuilder<T> prefix) {
-        for (final BoundField<Z, ?> field : fields) {
-            field.encode(input, ops, prefix);
+        try {
+            encodeFields(input, ops, prefix, encodedKeys(ops));
+        } catch (Throwable e) {
+            prefix.withErrorsFrom(DataResult.error(e.getMessage()));
         }
         return prefix;
     }
 
+    /**
+     * Encodes all the fields of the {@code input}. <br>
+     * Generated codecs override this method with a straight-line implementation.
+     */
+    protected <T> void encodeFields(Z input, DynamicOps<T> ops, RecordBuilder<T> prefix, T[] keys) throws Throwable {
+        for (int i = 0; i < fieldArray.length; i++) {
+            fieldArray[i].encode(input, keys[i], ops, prefix);
+        }
+    }
+
+    /**
+     * Encodes the already read {@code value} of the field with the given {@code index}, under its {@link #encodedKeys(DynamicOps) encoded key}.
+     * Only codecs whose fields are all {@link BoundField.ForField} can encode read values.
+     */
+    @SuppressWarnings("unchecked")
+    protected final <T> void encodeValue(int index, @Nullable Object value, T key, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+        ((BoundField.ForField<Z, Object>) fieldArray[index]).encodeValue(value, key, ops, prefix);
+    }
+
+    /**
+     * Reports that encoding a field failed with the given {@code error}. Generated codecs encode each field separately,
+     * so that, like {@link BoundField.ForField#encode(Object, Object, DynamicOps, RecordBuilder)}, a failing field doesn't stop
+     * the other fields from being encoded.
+     */
+    protected final <T> void encodeFailed(Throwable error, RecordBuilder<T> prefix) {
+        prefix.withErrorsFrom(DataResult.error(error.getMessage()));
+    }
+
+    // Primitive counterparts of encodeValue, which don't box the value if the field uses the built-in codec of its type
+
+    protected final <T> void encodeInt(int index, int value, T key, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+        if (unboxed[index]) prefix.add(key, ops.createInt(value));
+        else encodeValue(index, value, key, ops, prefix);
+    }
+
+    protected final <T> void encodeLong(int index, long value, T key, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+        if (unboxed[index]) prefix.add(key, ops.createLong(value));
+        else encodeValue(index, value, key, ops, prefix);
+    }
+
+    protected final <T> void encodeDouble(int index, double value, T key, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+        if (unboxed[index]) prefix.add(key, ops.createDouble(value));
+        else encodeValue(index, value, key, ops, prefix);
+    }
+
+    protected final <T> void encodeFloat(int index, float value, T key, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+        if (unboxed[index]) prefix.add(key, ops.createFloat(value));
+        else encodeValue(index, value, key, ops, prefix);
+    }
+
+    protected final <T> void encodeBoolean(int index, boolean value, T key, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+        if (unboxed[index]) prefix.add(key, ops.createBoolean(value));
+        else encodeValue(index, value, key, ops, prefix);
+    }
+
+    protected final <T> void encodeByte(int index, byte value, T key, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+        if (unboxed[index]) prefix.add(key, ops.createByte(value));
+        else encodeValue(index, value, key, ops, prefix);
+    }
+
+    protected final <T> void encodeShort(int index, short value, T key, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+        if (unboxed[index]) prefix.add(key, ops.createShort(value));
+        else encodeValue(index, value, key, ops, prefix);
+    }
+
+    protected final <T> void encodeChar(int index, char value, T key, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+        if (unboxed[index]) prefix.add(key, ops.createString(String.valueOf(value)));
+        else encodeValue(index, value, key, ops, prefix);
+    }
+
+    public List<BoundField<Z, ?>> getFields() {
+        return fields;
+    }
+
+    private record EncodedKeys(DynamicOps<?> ops, Object[] keys) {}
+
+    /**
+     * Collects the errors encountered while decoding an object.
+     */
+    public static final class DecodingContext extends DirectDecoder.ErrorSink {
+        private boolean skipped;
+        @Nullable
+        private Object[] values;
+
+        public DecodingContext(ErrorStrategy strategy) {
+            super(strategy);
+        }
+
+        /**
+         * {@return whether the last primitive value that was decoded should not be written}
+         */
+        public boolean skipped() {
+            return skipped;
+        }
+    }
+
     public interface BoundField<I, T> {
         String getName();
         <Z> void encode(I input, DynamicOps<Z> ops, RecordBuilder<Z> prefix);
         @Nullable
         <Z> DataResult<T> decode(DynamicOps<Z> ops, MapLike<Z> map);
 
+        /**
+         * Encodes the value of this field in the {@code input}, under the already created {@code key}.
+         * The key is the {@link #getName() name} of the field, so by default it is discarded, and the field encoded as usual.
+         */
+        default <Z> void encode(I input, Z key, DynamicOps<Z> ops, RecordBuilder<Z> prefix) {
+            encode(input, ops, prefix);
+        }
+
+        /**
+         * Decodes the already looked up {@code value} of the field, which is {@code null} if the key is missing. <br>
+         * By default, the value is decoded as if it was the only entry of a map.
+         */
+        @Nullable
+        default <Z> DataResult<T> decodeValue(DynamicOps<Z> ops, @Nullable Z value) {
+            return decode(ops, MapLike.forMap(value == null ? Map.of() : Map.of(ops.createString(getName()), value), ops));
+        }
+
+        /**
+         * Decodes the already looked up {@code value} of the field, reporting errors to the {@code errors} sink.
+         *
+         * @return the decoded value, the partial value if the decoding failed, or {@link #SKIP} if there's no value to write
+         */
+        @Nullable
+        default <Z> Object decodeDirect(DynamicOps<Z> ops, @Nullable Z value, DirectDecoder.ErrorSink errors) {
+            final DataResult<T> result = decodeValue(ops, value);
+            if (result == null) return SKIP;
+
+            final int errorCount = errors.errorCount();
+            final T decoded = errors.unwrap(result);
+            return decoded == null && errors.errorCount() != errorCount ? SKIP : decoded;
+        }
+
         class ForField<I, T> implements BoundField<I, T> {
             private final String name;
             private final boolean required;
@@ -102,8 +444,19 @@ public class FieldsCodec<Z> extends MapCodec<Z> {
             private final @Nullable Decoder<T> decoder;
             private final FieldReader<I, T> reader;
             private final FieldWriter<I, T> writer;
+            @Nullable
+            private final Class<?> primitiveType;
 
             public ForField(String name, boolean required, boolean isOptionalType, @Nullable Supplier<T> defaultValue, Encoder<T> encoder, Decoder<T> decoder, FieldReader<I, T> reader, FieldWriter<I, T> writer) {
+                this(name, required, isOptionalType, defaultValue, encoder, decoder, reader, writer, null);
+            }
+
+            /**
+             * @param primitiveType if not {@code null}, the primitive type of the field, which uses the built-in codec of the type.
+             *                      The field will then be encoded and decoded using the primitive {@link DynamicOps} methods, and
+             *                      the {@code reader} and {@code writer} must be the primitive specializations for that type
+             */
+            public ForField(String name, boolean required, boolean isOptionalType, @Nullable Supplier<T> defaultValue, Encoder<T> encoder, Decoder<T> decoder, FieldReader<I, T> reader, FieldWriter<I, T> writer, @Nullable Class<?> primitiveType) {
                 this.name = name;
                 this.required = required;
                 this.isOptionalType = isOptionalType;
@@ -112,6 +465,7 @@ public class FieldsCodec<Z> extends MapCodec<Z> {
                 this.decoder = decoder;
                 this.reader = isOptionalType ? FieldReader.optionalUnwrap(reader) : reader;
                 this.writer = isOptionalType ? FieldWriter.optionalWrap(writer) : writer;
+                this.primitiveType = primitiveType;
             }
 
             @Override
@@ -121,22 +475,42 @@ public class FieldsCodec<Z> extends MapCodec<Z> {
 
             @Override
             public <Z> void encode(I input, DynamicOps<Z> ops, RecordBuilder<Z> prefix) {
+                encode(input, ops.createString(name), ops, prefix);
+            }
+
+            @Override
+            public <Z> void encode(I input, Z key, DynamicOps<Z> ops, RecordBuilder<Z> prefix) {
                 if (encoder == null) return;
 
                 try {
-                    final T value = reader.read(input);
-                    if (value == null) return; // Codecs don't do nulls
-                    prefix.add(name, value, encoder);
+                    if (primitiveType != null) {
+                        prefix.add(key, encodePrimitive(input, ops));
+                    } else {
+                        encodeValue(reader.read(input), key, ops, prefix);
+                    }
                 } catch (Throwable e) {
                     prefix.withErrorsFrom(DataResult.error(e.getMessage()));
                 }
             }
 
+            /**
+             * Encodes the already read {@code value} of this field, under the already created {@code key}.
+             */
+            public <Z> void encodeValue(@Nullable T value, Z key, DynamicOps<Z> ops, RecordBuilder<Z> prefix) {
+                if (value == null || encoder == null) return; // Codecs don't do nulls
+                prefix.add(key, value, encoder);
+            }
+
             @Override
             public <Z> DataResult<T> decode(DynamicOps<Z> ops, MapLike<Z> map) {
                 if (decoder == null) return null;
+                return decodeValue(ops, map.get(name));
+            }
+
+            @Override
+            public <Z> DataResult<T> decodeValue(DynamicOps<Z> ops, @Nullable Z mapVal) {
+                if (decoder == null) return null;
 
-                final Z mapVal = map.get(name);
                 if (mapVal == null) {
                     if (required) {
                         return DataResult.error("Missing required key: " + name);
@@ -146,6 +520,68 @@ public class FieldsCodec<Z> extends MapCodec<Z> {
                 return decoder.decode(ops, mapVal).map(Pair::getFirst);
             }
 
+            @Override
+            public <Z> Object decodeDirect(DynamicOps<Z> ops, @Nullable Z mapVal, DirectDecoder.ErrorSink errors) {
+                if (decoder == null) return SKIP;
+
+                if (mapVal == null) {
+                    if (required) {
+                        errors.error("Missing required key: " + name);
+                        return SKIP;
+                    }
+                    return defaultValue == null ? null : defaultValue.get();
+                }
+
+                final int errorCount = errors.errorCount();
+                final T value = DirectDecoder.decode(decoder, ops, mapVal, errors);
+                return value == null && errors.errorCount() != errorCount ? SKIP : value;
+            }
+
+            @SuppressWarnings("unchecked")
+            private <Z> Z encodePrimitive(I input, DynamicOps<Z> ops) throws Throwable {
+                if (primitiveType == int.class) {
+                    return ops.createInt(((FieldReader.OfInt<I>) reader).readInt(input));
+                } else if (primitiveType == long.class) {
+                    return ops.createLong(((FieldReader.OfLong<I>) reader).readLong(input));
+                } else if (primitiveType == double.class) {
+                    return ops.createDouble(((FieldReader.OfDouble<I>) reader).readDouble(input));
+                } else if (primitiveType == float.class) {
+                    return ops.createFloat(((FieldReader.OfFloat<I>) reader).readFloat(input));
+                } else if (primitiveType == boolean.class) {
+                    return ops.createBoolean(((FieldReader.OfBoolean<I>) reader).readBoolean(input));
+                } else if (primitiveType == byte.class) {
+                    return ops.createByte(((FieldReader.OfByte<I>) reader).readByte(input));
+                } else if (primitiveType == short.class) {
+                    return ops.createShort(((FieldReader.OfShort<I>) reader).readShort(input));
+                }
+                return ops.createString(String.valueOf(((FieldReader.OfChar<I>) reader).readChar(input)));
+            }
+
+            /**
+             * Decodes the {@code mapVal} of this primitive field, without going through its codec.
+             *
+             * @return the {@link Number} value for numeric types, the {@link Boolean} value for booleans, the {@link Character}
+             * value for chars, or {@code null} if there's no value to write, in which case errors are reported to the {@code context}
+             */
+            @Nullable
+            public <Z> Object decodePrimitive(DynamicOps<Z> ops, @Nullable Z mapVal, DecodingContext context) {
+                if (mapVal == null) {
+                    if (required) {
+                        context.error("Missing required key: " + name);
+                        return null;
+                    }
+                    return defaultValue == null ? null : defaultValue.get();
+                }
+
+                if (primitiveType == boolean.class) {
+                    return context.unwrap(ops.getBooleanValue(mapVal));
+                } else if (primitiveType == char.class) {
+                    final String string = context.unwrap(ops.getStringValue(mapVal));
+                    return string == null ? null : context.unwrap(Codecs.parseChar(string));
+                }
+                return context.unwrap(ops.getNumberValue(mapVal));
+            }
+
             public FieldWriter<I, T> getWriter() {
                 return writer;
             }
@@ -153,13 +589,22 @@ public class FieldsCodec<Z> extends MapCodec<Z> {
             public boolean isOptionalType() {
                 return isOptionalType;
             }
+
+            @Nullable
+            public Class<?> getPrimitiveType() {
+                return primitiveType;
+            }
         }
 
         class ForRecordComponent<I, T> extends ForField<I, T> {
             private final String fieldName;
-            @SuppressWarnings("unchecked")
             public ForRecordComponent(String name, String fieldName, boolean required, boolean isOptionalType, @Nullable Supplier<T> defaultValue, Encoder<T> encoder, Decoder<T> decoder, FieldReader<I, T> reader) {
-                super(name, required, isOptionalType, defaultValue, encoder, decoder, reader, FieldWriter.DUMMY);
+                this(name, fieldName, required, isOptionalType, defaultValue, encoder, decoder, reader, null);
+            }
+
+            @SuppressWarnings("unchecked")
+            public ForRecordComponent(String name, String fieldName, boolean required, boolean isOptionalType, @Nullable Supplier<T> defaultValue, Encoder<T> encoder, Decoder<T> decoder, FieldReader<I, T> reader, @Nullable Class<?> primitiveType) {
+                super(name, required, isOptionalType, defaultValue, encoder, decoder, reader, FieldWriter.DUMMY, primitiveType);
                 this.fieldName = fieldName;
             }
 
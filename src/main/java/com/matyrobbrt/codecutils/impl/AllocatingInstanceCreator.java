@@ -5,7 +5,7 @@ import com.matyrobbrt.codecutils.codecs.FieldsCodec;
 public record AllocatingInstanceCreator<Z>(Allocator allocator, Class<Z> type) implements InstanceCreator<Z> {
     @Override
     public Acceptor<Z> create() throws Throwable {
-        final Z object = allocator.allocate(type);
+        final Z object = allocate();
         return new Acceptor<>() {
             @Override
             public <T> void accept(FieldsCodec.BoundField<Z, T> field, T value) throws Throwable {
@@ -33,6 +33,10 @@ public record AllocatingInstanceCreator<Z>(Allocator allocator, Class<Z> type) i
         };
     }
 
+    public Z allocate() throws Throwable {
+        return allocator.allocate(type);
+    }
+
     public interface Allocator {
         <T> T allocate(Class<T> type) throws Throwable;
     }
@@ -6,6 +6,7 @@ import com.google.gson.reflect.TypeToken;
 import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration;
 import com.matyrobbrt.codecutils.api.CodecCreatorConfigurator;
 import com.matyrobbrt.codecutils.api.CodecTypeAdapter;
+import com.matyrobbrt.codecutils.codecs.Codecs;
 import com.matyrobbrt.codecutils.impl.types.DefaultCTAFs;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
@@ -53,12 +54,9 @@ public class BuiltInConfigurationApplier implements CodecCreatorConfigurator {
         helper.registerAdapter(Codec.LONG, catchingException(Long::valueOf), Object::toString, long.class, Long.class);
         helper.registerAdapter(Codec.SHORT, catchingException(Short::valueOf), Object::toString, short.class, Short.class);
 
-        final Codec<Character> charCodec = Codec.STRING.flatXmap(s -> s.length() != 1 ?
-                DataResult.error("Expected one character but found a string of length "+ s.length()) :
-                DataResult.success(s.charAt(0)), character -> DataResult.success(character.toString()));
-        helper.registerAdapter(charCodec, char.class, Character.class);
-        configuration.withStringLikeAdapter(TypeToken.get(char.class), CodecTypeAdapter.fromCodec(charCodec));
-        configuration.withStringLikeAdapter(TypeToken.get(Character.class), CodecTypeAdapter.fromCodec(charCodec));
+        helper.registerAdapter(Codecs.CHAR, char.class, Character.class);
+        configuration.withStringLikeAdapter(TypeToken.get(char.class), CodecTypeAdapter.fromCodec(Codecs.CHAR));
+        configuration.withStringLikeAdapter(TypeToken.get(Character.class), CodecTypeAdapter.fromCodec(Codecs.CHAR));
 
         helper.registerAdapter(Codec.BYTE_BUFFER, ByteBuffer.class);
         helper.registerAdapter(Codec.INT_STREAM, IntStream.class);
@@ -4,6 +4,7 @@ import com.google.auto.service.AutoService;
 import com.google.gson.reflect.TypeToken;
 import com.matyrobbrt.codecutils.api.CodecCreator;
 import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration;
+import com.matyrobbrt.codecutils.api.CodecCreatorConfigurator;
 import com.matyrobbrt.codecutils.api.CodecTypeAdapter;
 import com.matyrobbrt.codecutils.impl.types.DefaultObjectCreators;
 import com.matyrobbrt.codecutils.impl.types.TypeCache;
@@ -11,20 +12,63 @@ import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
+import java.lang.reflect.Type;
 import java.util.HashSet;
+import java.util.Set;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class CodecCreatorImpl implements CodecCreatorInternal {
-    private final DefaultObjectCreators creators = new DefaultObjectCreators();
-    private final FieldDataResolvers resolvers = new FieldDataResolvers(this, new HashMap<>(), new HashMap<>());
-    private final TypeCache typeCache = new TypeCache(this);
+    private final DefaultObjectCreators creators;
+    private final FieldDataResolvers resolvers = new FieldDataResolvers(this);
+    private final TypeCache typeCache;
+    private final CodecSettings settings;
+    // The state of the configuration, which derived creators start from
+    private final Set<CodecCreatorConfigurator> appliedConfigurators;
+    private final Object2IntMap<CodecTypeAdapter.Factory> priorities;
+
+    private CodecCreatorImpl(@Nullable CodecCreatorImpl parent) {
+        if (parent == null) {
+            this.creators = new DefaultObjectCreators();
+            this.typeCache = new TypeCache(this);
+            this.settings = new CodecSettings();
+            this.appliedConfigurators = new HashSet<>();
+            this.priorities = new Object2IntOpenHashMap<>();
+        } else {
+            this.creators = new DefaultObjectCreators(parent.creators);
+            this.typeCache = new TypeCache(this, parent.typeCache);
+            this.settings = parent.settings.copy();
+            this.appliedConfigurators = new HashSet<>(parent.appliedConfigurators);
+            this.priorities = new Object2IntOpenHashMap<>(parent.priorities);
+        }
+    }
 
     @Override
     public <T> CodecTypeAdapter<T> getAdapter(TypeToken<T> type) {
         return typeCache.getAdapter(type);
     }
 
+    @Override
+    public <T> CodecTypeAdapter<T> getAdapter(Class<T> clazz) {
+        return typeCache.getAdapter(clazz);
+    }
+
+    @Override
+    public CodecCreator freeze(Type... types) {
+        typeCache.freeze(Stream.of(types).<TypeToken<?>>map(TypeToken::get).toList());
+        return this;
+    }
+
+    @Override
+    public CodecCreator derive(Consumer<CodecCreatorConfiguration> consumer) {
+        final CodecCreatorImpl derived = new CodecCreatorImpl(this).configure(consumer);
+        if (!derived.settings.equals(settings)) {
+            // The settings are used by all the generated codecs, so none of the adapters of this creator can be reused
+            derived.typeCache.detach();
+        }
+        return derived;
+    }
+
     @Override
     public @Nullable <T> CodecTypeAdapter<T> getStringLikeAdapter(TypeToken<T> type) {
         return typeCache.stringLike(type);
@@ -40,11 +84,19 @@ public class CodecCreatorImpl implements CodecCreatorInternal {
         return resolvers;
     }
 
-    public static CodecCreator create(Consumer<CodecCreatorConfiguration> consumer) {
-        final CodecCreatorImpl impl = new CodecCreatorImpl();
-        new ConfigurationImpl(impl.typeCache, impl.creators, new HashSet<>(), new Object2IntOpenHashMap<>())
+    @Override
+    public CodecSettings getSettings() {
+        return settings;
+    }
+
+    private CodecCreatorImpl configure(Consumer<CodecCreatorConfiguration> consumer) {
+        new ConfigurationImpl(typeCache, creators, settings, appliedConfigurators, priorities)
                 .accept(consumer).rebuildFactoryTree();
-        return impl;
+        return this;
+    }
+
+    public static CodecCreator create(Consumer<CodecCreatorConfiguration> consumer) {
+        return new CodecCreatorImpl(null).configure(consumer);
     }
 
     @AutoService(CodecCreator.$Factory.class)
@@ -14,6 +14,9 @@ public interface CodecCreatorInternal extends CodecCreator {
     @ApiStatus.Internal
     FieldDataResolvers getFieldDataResolvers();
 
+    @ApiStatus.Internal
+    CodecSettings getSettings();
+
     @Nullable
     @ApiStatus.Internal
     <T> CodecTypeAdapter<T> getStringLikeAdapter(TypeToken<T> type);
@@ -2,18 +2,30 @@ package com.matyrobbrt.codecutils.impl;
 
 import com.google.common.base.Suppliers;
 import com.google.gson.reflect.TypeToken;
+import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration;
 import com.matyrobbrt.codecutils.api.annotation.CodecSerialize;
 import com.matyrobbrt.codecutils.api.annotation.ExcludeFields;
+import com.matyrobbrt.codecutils.api.annotation.GenerateCodec;
+import com.matyrobbrt.codecutils.codecs.Codecs;
 import com.matyrobbrt.codecutils.codecs.FieldsCodec;
+import com.matyrobbrt.codecutils.invoke.Accessors;
+import com.matyrobbrt.codecutils.invoke.FieldReader;
+import com.matyrobbrt.codecutils.invoke.FieldWriter;
+import com.matyrobbrt.codecutils.invoke.MemberIndex;
 import com.matyrobbrt.codecutils.invoke.Reflection;
 import com.mojang.serialization.Codec;
 
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -22,34 +34,112 @@ import java.util.stream.Collectors;
 @SuppressWarnings("rawtypes")
 public class CodecGenerator {
     public static final RecordInstanceCreator.Instantiator.Factory FACTORY = RecordInstanceCreator.Instantiator.ctor();
+    private static final Map<Class<?>, Codec<?>> PRIMITIVE_CODECS = Map.of(
+            int.class, Codec.INT,
+            long.class, Codec.LONG,
+            double.class, Codec.DOUBLE,
+            float.class, Codec.FLOAT,
+            boolean.class, Codec.BOOL,
+            byte.class, Codec.BYTE,
+            short.class, Codec.SHORT,
+            char.class, Codecs.CHAR
+    );
+    private static final boolean GENERATE_CODECS = !Boolean.getBoolean("codecutils.disableCodecGeneration");
+    // The constructors of the codecs generated at compile time for GenerateCodec annotated records
+    private static final ClassValue<Optional<MethodHandle>> GENERATED_CODECS = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> type) {
+            if (!type.isRecord() || type.getAnnotation(GenerateCodec.class) == null) {
+                return Optional.empty();
+            }
+            final Class<?> codec;
+            try {
+                codec = Class.forName(type.getName() + GenerateCodec.SUFFIX, true, type.getClassLoader());
+            } catch (ClassNotFoundException ignored) {
+                // The processor didn't run, so the codec is generated at runtime
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(Reflection.TRUSTED_LOOKUP.findConstructor(codec, MethodType.methodType(void.class, List.class, InstanceCreator.class, boolean.class, CodecCreatorConfiguration.ErrorStrategy.class)));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                // A generated codec which doesn't match this version of the library is stale, so don't hide it
+                throw new IllegalStateException("Generated codec " + codec.getName() + " of " + type.getName() + " cannot be used, recompile it with the current processor", e);
+            }
+        }
+    };
 
     @SuppressWarnings("unchecked")
     public static <T> Codec<T> generateRecord(CodecCreatorInternal creator, TypeToken<T> recordType) throws Throwable {
-        final List<FieldsCodec.BoundField<T, ?>> fields = new ArrayList<>();
-        for (final RecordComponent comp : recordType.getRawType().getRecordComponents()) {
-            final FieldDataResolvers.FieldData<?> data = creator.getFieldDataResolvers().resolve(comp, recordType);
-            fields.add(bind(comp, data));
+        final RecordComponent[] components = recordType.getRawType().getRecordComponents();
+        final List<FieldDataResolvers.FieldData<?>> data = new ArrayList<>(components.length);
+        for (final RecordComponent comp : components) {
+            data.add(creator.getFieldDataResolvers().resolve(comp, recordType));
+        }
+        final MethodHandle generated = GENERATED_CODECS.get(recordType.getRawType()).orElse(null);
+        if (generated != null) {
+            // Like the codecs generated at runtime, the generated codec accesses the components itself
+            final List<FieldsCodec.BoundField<T, ?>> fields = new ArrayList<>(components.length);
+            for (int i = 0; i < components.length; i++) {
+                fields.add(bind(components[i], data.get(i), false));
+            }
+            final boolean singlePass = creator.getSettings().getDecodingMode() == CodecCreatorConfiguration.DecodingMode.SINGLE_PASS;
+            return ((FieldsCodec<T>) generated.invoke(fields, new RecordInstanceCreator(recordType.getRawType(), FACTORY), singlePass, creator.getSettings().getErrorStrategy())).codec();
         }
-        return new FieldsCodec<>(fields, new RecordInstanceCreator(recordType.getRawType(), FACTORY)).codec();
+        return createCodec(creator, recordType.getRawType(), List.of(components), accessors -> {
+            final List<FieldsCodec.BoundField<T, ?>> fields = new ArrayList<>(components.length);
+            for (int i = 0; i < components.length; i++) {
+                fields.add(bind(components[i], data.get(i), accessors));
+            }
+            return fields;
+        }, new RecordInstanceCreator(recordType.getRawType(), FACTORY)).codec();
     }
 
     @SuppressWarnings("unchecked")
     public static <T> Codec<T> generateClass(CodecCreatorInternal creator, TypeToken<T> recordType) throws Throwable {
-        final List<FieldsCodec.BoundField<T, ?>> fields = new ArrayList<>();
+        final List<FieldDataResolvers.FieldData<?>> data = new ArrayList<>();
+        final List<Field> members = new ArrayList<>();
         final Set<String> toExclude = Arrays.stream(Optional.ofNullable(recordType.getRawType().getAnnotation(ExcludeFields.class))
                 .map(ExcludeFields::value).orElse(new String[0])).collect(Collectors.toSet());
-        for (final Field field : recordType.getRawType().getDeclaredFields()) {
+        for (final Field field : MemberIndex.of(recordType.getRawType()).fields()) {
             if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()) || toExclude.contains(field.getName())) continue;
             if (Optional.ofNullable(field.getAnnotation(CodecSerialize.class)).map(CodecSerialize::exclude).orElse(false)) continue;
 
-            final FieldDataResolvers.FieldData<?> data = creator.getFieldDataResolvers().resolve(field, recordType);
-            fields.add(bind(field, data));
+            data.add(creator.getFieldDataResolvers().resolve(field, recordType));
+            members.add(field);
+        }
+        return createCodec(creator, recordType.getRawType(), members, accessors -> {
+            final List<FieldsCodec.BoundField<T, ?>> fields = new ArrayList<>(members.size());
+            for (int i = 0; i < members.size(); i++) {
+                fields.add(bind(members.get(i), data.get(i), accessors));
+            }
+            return fields;
+        }, new AllocatingInstanceCreator(creator.getDefaultCreators()::createNoArgs, recordType.getRawType())).codec();
+    }
+
+    private static <T> FieldsCodec<T> createCodec(CodecCreatorInternal creator, Class<?> type, List<? extends AnnotatedElement> members, Binder<T> binder, InstanceCreator<T> instanceCreator) throws Throwable {
+        final boolean singlePass = creator.getSettings().getDecodingMode() == CodecCreatorConfiguration.DecodingMode.SINGLE_PASS;
+        final CodecCreatorConfiguration.ErrorStrategy errorStrategy = creator.getSettings().getErrorStrategy();
+        if (GENERATE_CODECS) {
+            try {
+                // The generated codec accesses all the members directly, so the fields don't need accessors of their own
+                return new FieldsCodecMetafactory(Reflection.getLookup(type), type, members).create(binder.bind(false), instanceCreator, singlePass, errorStrategy);
+            } catch (Throwable ignored) {
+                // Fallback to the generic codec if the type can't have one generated (e.g. it is not accessible)
+            }
         }
-        return new FieldsCodec<>(fields, new AllocatingInstanceCreator(creator.getDefaultCreators()::createNoArgs, recordType.getRawType())).codec();
+        return new FieldsCodec<>(binder.bind(true), instanceCreator, singlePass, errorStrategy);
+    }
+
+    @FunctionalInterface
+    private interface Binder<T> {
+        /**
+         * @param accessors whether the fields need to read and write the members, or if the codec accesses them itself
+         */
+        List<FieldsCodec.BoundField<T, ?>> bind(boolean accessors) throws Throwable;
     }
 
     @SuppressWarnings("unchecked")
-    private static <T, Z> FieldsCodec.BoundField<T, Z> bind(RecordComponent comp, FieldDataResolvers.FieldData<Z> data) throws Throwable {
+    private static <T, Z> FieldsCodec.BoundField<T, Z> bind(RecordComponent comp, FieldDataResolvers.FieldData<Z> data, boolean accessors) throws Throwable {
         final Codec<Z> codec = (Codec<Z>) data.typeAdapter().asCodec();
         final Supplier<Z> defaultValue = data.defaultValue() == null ?
                 (FieldDataResolvers.PRIMITIVE_TYPES.contains(comp.getType()) ? Suppliers.ofInstance((Z) FieldDataResolvers.PRIMITIVE_DEFAULTS.get(comp.getType())) : null) :
@@ -58,17 +148,25 @@ public class CodecGenerator {
                 data.name(), comp.getName(),
                 !data.optional(), comp.getType() == Optional.class, defaultValue,
                 codec, codec,
-                Reflection.reader(comp)
+                accessors ? Accessors.reader(comp) : FieldReader.DUMMY, unboxedType(comp.getType(), codec)
         );
     }
 
     @SuppressWarnings("unchecked")
-    private static <T, Z> FieldsCodec.BoundField<T, Z> bind(Field field, FieldDataResolvers.FieldData<Z> data) throws Throwable {
+    private static <T, Z> FieldsCodec.BoundField<T, Z> bind(Field field, FieldDataResolvers.FieldData<Z> data, boolean accessors) throws Throwable {
         final Codec<Z> codec = (Codec<Z>) data.typeAdapter().asCodec();
         return new FieldsCodec.BoundField.ForField<>(
                 data.name(), !data.optional(), field.getType() == Optional.class,
                 data.defaultValue(), codec, codec,
-                Reflection.findBestReadStrategy(field), Reflection.findBestWriteStrategy(field)
+                accessors ? Accessors.reader(field) : FieldReader.DUMMY,
+                accessors ? Accessors.writer(field) : FieldWriter.DUMMY,
+                unboxedType(field.getType(), codec)
         );
     }
+
+    // Primitives using the built-in codec of their type can be serialized without boxing
+    @Nullable
+    private static Class<?> unboxedType(Class<?> type, Codec<?> codec) {
+        return type.isPrimitive() && PRIMITIVE_CODECS.get(type) == codec ? type : null;
+    }
 }
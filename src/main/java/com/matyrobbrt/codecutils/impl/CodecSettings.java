@@ -0,0 +1,57 @@
+package com.matyrobbrt.codecutils.impl;
+
+import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration;
+
+import java.util.Objects;
+
+/**
+ * Holds the settings of a codec creator, which are used when generating codecs.
+ */
+public final class CodecSettings {
+    private CodecCreatorConfiguration.DecodingMode decodingMode = CodecCreatorConfiguration.DecodingMode.LOOKUP;
+    private CodecCreatorConfiguration.ErrorStrategy errorStrategy = CodecCreatorConfiguration.ErrorStrategy.COLLECT_ALL;
+    private boolean validateWhenSerializing = true;
+
+    public CodecCreatorConfiguration.DecodingMode getDecodingMode() {
+        return decodingMode;
+    }
+
+    public void setDecodingMode(CodecCreatorConfiguration.DecodingMode decodingMode) {
+        this.decodingMode = decodingMode;
+    }
+
+    public CodecCreatorConfiguration.ErrorStrategy getErrorStrategy() {
+        return errorStrategy;
+    }
+
+    public void setErrorStrategy(CodecCreatorConfiguration.ErrorStrategy errorStrategy) {
+        this.errorStrategy = errorStrategy;
+    }
+
+    public boolean validatesWhenSerializing() {
+        return validateWhenSerializing;
+    }
+
+    public void setValidateWhenSerializing(boolean validateWhenSerializing) {
+        this.validateWhenSerializing = validateWhenSerializing;
+    }
+
+    public CodecSettings copy() {
+        final CodecSettings copy = new CodecSettings();
+        copy.decodingMode = decodingMode;
+        copy.errorStrategy = errorStrategy;
+        copy.validateWhenSerializing = validateWhenSerializing;
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CodecSettings other && decodingMode == other.decodingMode
+                && errorStrategy == other.errorStrategy && validateWhenSerializing == other.validateWhenSerializing;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(decodingMode, errorStrategy, validateWhenSerializing);
+    }
+}
@@ -1,10 +1,8 @@
 package com.matyrobbrt.codecutils.impl;
 
 import com.google.common.base.Suppliers;
-import com.google.common.collect.ClassToInstanceMap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimaps;
-import com.google.common.collect.MutableClassToInstanceMap;
 import com.google.gson.reflect.TypeToken;
 import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration;
 import com.matyrobbrt.codecutils.api.CodecCreatorConfigurator;
@@ -25,12 +23,22 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 @SuppressWarnings({"unchecked", "rawtypes"})
-record ConfigurationImpl(TypeCache cache, DefaultObjectCreators creators, Set<CodecCreatorConfigurator> alreadyApplied, Object2IntMap<CodecTypeAdapter.Factory> priorities) implements CodecCreatorConfiguration {
+record ConfigurationImpl(TypeCache cache, DefaultObjectCreators creators, CodecSettings settings, Set<CodecCreatorConfigurator> alreadyApplied, Object2IntMap<CodecTypeAdapter.Factory> priorities) implements CodecCreatorConfiguration {
     private static final Supplier<ListMultimap<String, CodecCreatorConfigurator>> APPLIERS_BY_ID = Suppliers.memoize(() ->
             ServiceLoader.load(CodecCreatorConfigurator.class, CodecCreatorConfigurator.class.getClassLoader()).stream()
                     .map(ServiceLoader.Provider::get)
                     .collect(Multimaps.toMultimap(CodecCreatorConfigurator::id, Function.identity(), () -> Multimaps.newListMultimap(new HashMap<>(), ArrayList::new))));
-    private static final ClassToInstanceMap<CodecCreatorConfigurator> CONFIGURATORS = MutableClassToInstanceMap.create();
+    // Stored on the configurator classes themselves, so that reloaded configurators can be unloaded
+    private static final ClassValue<CodecCreatorConfigurator> CONFIGURATORS = new ClassValue<>() {
+        @Override
+        protected CodecCreatorConfigurator computeValue(Class<?> type) {
+            try {
+                return (CodecCreatorConfigurator) Reflection.createInstance(type.getDeclaredConstructor());
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    };
 
     @Override
     public CodecCreatorConfiguration withAdapterFactory(CodecTypeAdapter.Factory factory) {
@@ -76,6 +84,25 @@ record ConfigurationImpl(TypeCache cache, DefaultObjectCreators creators, Set<Co
     @Override
     public <A> CodecCreatorConfiguration withCreator(Class<A> type, ObjectCreator<A> creator) {
         creators.register(type, creator);
+        cache.registerCreator(type);
+        return this;
+    }
+
+    @Override
+    public CodecCreatorConfiguration withDecodingMode(DecodingMode mode) {
+        settings.setDecodingMode(mode);
+        return this;
+    }
+
+    @Override
+    public CodecCreatorConfiguration withErrorStrategy(ErrorStrategy strategy) {
+        settings.setErrorStrategy(strategy);
+        return this;
+    }
+
+    @Override
+    public CodecCreatorConfiguration withValidationWhenSerializing(boolean validate) {
+        settings.setValidateWhenSerializing(validate);
         return this;
     }
 
@@ -89,13 +116,7 @@ record ConfigurationImpl(TypeCache cache, DefaultObjectCreators creators, Set<Co
 
     @Override
     public CodecCreatorConfiguration apply(Class<? extends CodecCreatorConfigurator> configuratorClass) {
-        return apply(CONFIGURATORS.computeIfAbsent(configuratorClass, k -> {
-            try {
-                return Reflection.createInstance(configuratorClass.getDeclaredConstructor());
-            } catch (Throwable e) {
-                throw new RuntimeException(e);
-            }
-        }));
+        return apply(CONFIGURATORS.get(configuratorClass));
     }
 
     @Override
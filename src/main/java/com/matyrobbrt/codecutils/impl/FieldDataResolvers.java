@@ -3,7 +3,6 @@ package com.matyrobbrt.codecutils.impl;
 import com.google.common.base.Suppliers;
 import com.google.gson.internal.$Gson$Types;
 import com.google.gson.reflect.TypeToken;
-import com.matyrobbrt.codecutils.api.CodecCreator;
 import com.matyrobbrt.codecutils.api.CodecTypeAdapter;
 import com.matyrobbrt.codecutils.api.annotation.AdapterFor;
 import com.matyrobbrt.codecutils.api.annotation.CodecSerialize;
@@ -15,6 +14,7 @@ import com.matyrobbrt.codecutils.api.annotation.SingleOrList;
 import com.matyrobbrt.codecutils.api.annotation.ValidateWith;
 import com.matyrobbrt.codecutils.api.annotation.WithAdapter;
 import com.matyrobbrt.codecutils.codecs.Codecs;
+import com.matyrobbrt.codecutils.invoke.MemberIndex;
 import com.matyrobbrt.codecutils.invoke.Reflection;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
@@ -30,7 +30,6 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
@@ -46,12 +45,21 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 @SuppressWarnings({"OptionalUsedAsFieldOrParameterType", "unchecked"})
-public record FieldDataResolvers(
-        CodecCreator creator,
-        Map<Class<?>, Map<String, VarHandle>> defaultValueCache,
-        Map<Class<?>, Map<String, CodecTypeAdapter<?>>> adapterCache
-) {
-    private static final Map<Class<?>, Ranged<?>> RANGED_TYPES = new HashMap<>();
+public record FieldDataResolvers(CodecCreatorInternal creator) {
+    // The default value and adapter fields only depend on the class, so they're shared between creators
+    private static final ClassValue<Map<String, VarHandle>> DEFAULT_VALUE_FIELDS = new ClassValue<>() {
+        @Override
+        protected Map<String, VarHandle> computeValue(Class<?> type) {
+            return findDefaultValueFields(type);
+        }
+    };
+    private static final ClassValue<Map<String, CodecTypeAdapter<?>>> ADAPTER_FIELDS = new ClassValue<>() {
+        @Override
+        protected Map<String, CodecTypeAdapter<?>> computeValue(Class<?> type) {
+            return findAdapterFields(type);
+        }
+    };
+
     private static final Map<Class<?>, Function<DefaultValue, ?>> DEFAULT_VALUES = new HashMap<>();
     static final Set<Class<?>> PRIMITIVE_TYPES = Set.of(
             int.class, byte.class, char.class, double.class, float.class, long.class, short.class, boolean.class
@@ -68,14 +76,6 @@ public record FieldDataResolvers(
     );
 
     static {
-        addRange(Range::intMin, Range::intMax, Integer.class, int.class);
-        addRange(Range::byteMin, Range::byteMax, Byte.class, byte.class);
-        addRange(Range::charMin, Range::charMax, Character.class, char.class);
-        addRange(Range::doubleMin, Range::doubleMax, Double.class, double.class);
-        addRange(Range::floatMin, Range::floatMax, Float.class, float.class);
-        addRange(Range::longMin, Range::longMax, Long.class, long.class);
-        addRange(Range::shortMin, Range::shortMax, Short.class, short.class);
-
         addDefault(DefaultValue::stringValue, String.class);
         addDefault(DefaultValue::booleanValue, Boolean.class, boolean.class);
         addDefault(DefaultValue::intValue, Integer.class, int.class);
@@ -87,32 +87,12 @@ public record FieldDataResolvers(
         addDefault(DefaultValue::shortValue, Short.class, short.class);
     }
 
-    private static <T extends Comparable<T>> void addRange(Ranged<T> getter, Class<T>... classes) {
-        for (Class<T> aClass : classes) {
-            RANGED_TYPES.put(aClass, getter);
-        }
-    }
-
     private static <T> void addDefault(Function<DefaultValue, T> fun, Class<T>... classes) {
         for (Class<T> aClass : classes) {
             DEFAULT_VALUES.put(aClass, fun);
         }
     }
 
-    private static <T extends Comparable<T>> void addRange(Function<Range, T> min, Function<Range, T> max, Class<T>... classes) {
-        addRange(new Ranged<>() {
-            @Override
-            public T min(Range range) {
-                return min.apply(range);
-            }
-
-            @Override
-            public T max(Range range) {
-                return max.apply(range);
-            }
-        }, classes);
-    }
-
     public <T> FieldData<T> resolve(AnnotatedElement element, TypeToken<?> ownerType) {
         try {
             return resolve0(element, ownerType);
@@ -143,23 +123,31 @@ public record FieldDataResolvers(
         require(typeAdapter, "Cannot determine type adapter to use.");
 
         if (fieldType.isPresent()) {
-            final Ranged<?> rangedType = RANGED_TYPES.get(fieldType.get());
-            if (rangedType != null) {
-                final Range an = element.getAnnotation(Range.class);
-                if (an != null) {
-                    final Function test = Codecs.checkRangeInclusive(
-                            (Comparator)Comparator.naturalOrder(), rangedType.min(an), rangedType.max(an)
-                    );
-                    typeAdapter = typeAdapter.map(ad -> ad.flatXmap(test, test));
+            final List<FieldValidators.Check> decodeChecks = new ArrayList<>(2);
+            final List<FieldValidators.Check> encodeChecks = new ArrayList<>(2);
+            final Range range = element.getAnnotation(Range.class);
+            if (range != null) {
+                final FieldValidators.Check check = FieldValidators.range(fieldType.get(), range);
+                if (check != null) {
+                    decodeChecks.add(check);
+                    encodeChecks.add(check);
                 }
             }
 
             final ValidateWith validateWith = element.getAnnotation(ValidateWith.class);
             if (validateWith != null) {
-                final ValidateWith.Validator validator = Reflection.createInstance(validateWith.value().getDeclaredConstructor());
-                final Function verifier = Codecs.verifier(validator, validator::getMessage);
-                final Function success = Codecs.SUCCESS;
-                typeAdapter = typeAdapter.map(ad -> ad.flatXmap(validateWith.whenDeserializing() ? verifier : success, validateWith.whenSerializing() ? verifier : success));
+                final FieldValidators.Check check = FieldValidators.validator(validateWith.value());
+                if (validateWith.whenDeserializing()) decodeChecks.add(check);
+                if (validateWith.whenSerializing()) encodeChecks.add(check);
+            }
+
+            if (!creator.getSettings().validatesWhenSerializing()) {
+                encodeChecks.clear();
+            }
+            final Function decoder = FieldValidators.fuse(decodeChecks);
+            final Function encoder = FieldValidators.fuse(encodeChecks);
+            if (decoder != null || encoder != null) {
+                typeAdapter = typeAdapter.map(ad -> ad.flatXmap(decoder == null ? Codecs.SUCCESS : decoder, encoder == null ? Codecs.SUCCESS : encoder));
             }
         }
 
@@ -198,50 +186,54 @@ public record FieldDataResolvers(
     }
 
     private Map<String, VarHandle> getDefaultValueCache(Class<?> clazz) {
-        return defaultValueCache.computeIfAbsent(clazz, $ -> {
-            final Map<String, VarHandle> map = new HashMap<>();
-            for (final Field field : clazz.getDeclaredFields()) {
-                Optional.ofNullable(field.getAnnotation(DefaultValueFor.class))
-                        .filter(an -> {
-                            if (field.getType() != Supplier.class) {
-                                throw new IllegalArgumentException("Field '%s' holding value for field '%s' of '%s' must be of the type java.util.Supplier!".formatted(field, an.value(), clazz));
-                            }
-                            if (!(Modifier.isStatic(field.getModifiers()))) {
-                                throw new IllegalArgumentException("Field '%s' holding value for field '%s' of '%s' must be static!".formatted(field, an.value(), clazz));
-                            }
-                            return true;
-                        })
-                        .ifPresent(an -> map.put(an.value(), Reflection.unreflect(field)));
-            }
-            return map;
-        });
+        return DEFAULT_VALUE_FIELDS.get(clazz);
+    }
+
+    private static Map<String, VarHandle> findDefaultValueFields(Class<?> clazz) {
+        final Map<String, VarHandle> map = new HashMap<>();
+        for (final Field field : MemberIndex.of(clazz).fields()) {
+            Optional.ofNullable(field.getAnnotation(DefaultValueFor.class))
+                    .filter(an -> {
+                        if (field.getType() != Supplier.class) {
+                            throw new IllegalArgumentException("Field '%s' holding value for field '%s' of '%s' must be of the type java.util.Supplier!".formatted(field, an.value(), clazz));
+                        }
+                        if (!(Modifier.isStatic(field.getModifiers()))) {
+                            throw new IllegalArgumentException("Field '%s' holding value for field '%s' of '%s' must be static!".formatted(field, an.value(), clazz));
+                        }
+                        return true;
+                    })
+                    .ifPresent(an -> map.put(an.value(), Reflection.unreflect(field)));
+        }
+        return map;
     }
 
     private Map<String, CodecTypeAdapter<?>> getAdapterCache(Class<?> clazz) {
-        return adapterCache.computeIfAbsent(clazz, $ -> {
-            final Map<String, CodecTypeAdapter<?>> map = new HashMap<>();
-            for (final Field field : clazz.getDeclaredFields()) {
-                Optional.ofNullable(field.getAnnotation(AdapterFor.class))
-                        .ifPresent(an -> {
-                            if (!(Modifier.isStatic(field.getModifiers()))) {
-                                throw new IllegalArgumentException("Field '%s' holding type adapter for field '%s' of '%s' must be static!".formatted(field, an.value(), clazz));
-                            }
-                            final Object obj = Reflection.unreflect(field).get();
-
-                            final CodecTypeAdapter<?> adapter;
-                            if (obj instanceof Codec<?> cdc) {
-                                adapter = CodecTypeAdapter.fromCodec(cdc);
-                            } else if (obj instanceof CodecTypeAdapter<?> ap) {
-                                adapter = ap;
-                            } else {
-                                throw new IllegalArgumentException("Field '%s' holding type adapter for field '%s' of '%s' is not of a valid type!".formatted(field, an.value(), clazz));
-                            }
-
-                            map.put(an.value(), adapter);
-                        });
-            }
-            return map;
-        });
+        return ADAPTER_FIELDS.get(clazz);
+    }
+
+    private static Map<String, CodecTypeAdapter<?>> findAdapterFields(Class<?> clazz) {
+        final Map<String, CodecTypeAdapter<?>> map = new HashMap<>();
+        for (final Field field : MemberIndex.of(clazz).fields()) {
+            Optional.ofNullable(field.getAnnotation(AdapterFor.class))
+                    .ifPresent(an -> {
+                        if (!(Modifier.isStatic(field.getModifiers()))) {
+                            throw new IllegalArgumentException("Field '%s' holding type adapter for field '%s' of '%s' must be static!".formatted(field, an.value(), clazz));
+                        }
+                        final Object obj = Reflection.unreflect(field).get();
+
+                        final CodecTypeAdapter<?> adapter;
+                        if (obj instanceof Codec<?> cdc) {
+                            adapter = CodecTypeAdapter.fromCodec(cdc);
+                        } else if (obj instanceof CodecTypeAdapter<?> ap) {
+                            adapter = ap;
+                        } else {
+                            throw new IllegalArgumentException("Field '%s' holding type adapter for field '%s' of '%s' is not of a valid type!".formatted(field, an.value(), clazz));
+                        }
+
+                        map.put(an.value(), adapter);
+                    });
+        }
+        return map;
     }
 
     private Optional<CodecTypeAdapter<?>> adapter(Optional<WithAdapter> annotation, AnnotatedElement element, TypeToken<?> ownerType) {
@@ -318,9 +310,4 @@ public record FieldDataResolvers(
         final char capitalFirstLetter = Character.toLowerCase(firstLetter);
         return str.replace(str.charAt(0), capitalFirstLetter);
     }
-
-    public interface Ranged<Z extends Comparable<Z>> {
-        Z min(Range range);
-        Z max(Range range);
-    }
 }
@@ -0,0 +1,123 @@
+package com.matyrobbrt.codecutils.impl;
+
+import com.matyrobbrt.codecutils.api.annotation.Range;
+import com.matyrobbrt.codecutils.api.annotation.ValidateWith;
+import com.matyrobbrt.codecutils.invoke.Reflection;
+import com.mojang.serialization.DataResult;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builds the checks of {@link Range} and {@link ValidateWith} annotated fields, which are fused into a single stage of the field's adapter.
+ */
+final class FieldValidators {
+    // Validators are stateless, so one instance of each validator class is shared by all the fields using it
+    @SuppressWarnings("unchecked")
+    private static final ClassValue<ValidateWith.Validator<Object>> VALIDATORS = new ClassValue<>() {
+        @Override
+        protected ValidateWith.Validator<Object> computeValue(Class<?> type) {
+            try {
+                return (ValidateWith.Validator<Object>) Reflection.createInstance(type.getDeclaredConstructor());
+            } catch (Throwable e) {
+                throw new RuntimeException("Could not create validator " + type, e);
+            }
+        }
+    };
+
+    private FieldValidators() {}
+
+    /**
+     * A check of the value of a field.
+     */
+    @FunctionalInterface
+    interface Check {
+        /**
+         * {@return the error message if the {@code value} is not valid, or {@code null} if it is}
+         */
+        @Nullable
+        String check(Object value);
+    }
+
+    /**
+     * {@return a check of the given {@code range}, comparing unboxed values, or {@code null} if the {@code type} can't be ranged}
+     */
+    @Nullable
+    static Check range(Class<?> type, Range range) {
+        if (type == int.class || type == Integer.class) {
+            return intRange(range.intMin(), range.intMax());
+        } else if (type == long.class || type == Long.class) {
+            final long min = range.longMin(), max = range.longMax();
+            return value -> {
+                final long l = (Long) value;
+                return l >= min && l <= max ? null : outOfRange(value, min, max);
+            };
+        } else if (type == double.class || type == Double.class) {
+            final double min = range.doubleMin(), max = range.doubleMax();
+            return value -> {
+                final double d = (Double) value;
+                return d >= min && d <= max ? null : outOfRange(value, min, max);
+            };
+        } else if (type == float.class || type == Float.class) {
+            final float min = range.floatMin(), max = range.floatMax();
+            return value -> {
+                final float f = (Float) value;
+                return f >= min && f <= max ? null : outOfRange(value, min, max);
+            };
+        } else if (type == byte.class || type == Byte.class) {
+            return intRange(range.byteMin(), range.byteMax());
+        } else if (type == short.class || type == Short.class) {
+            return intRange(range.shortMin(), range.shortMax());
+        } else if (type == char.class || type == Character.class) {
+            final char min = range.charMin(), max = range.charMax();
+            return value -> {
+                final char c = (Character) value;
+                return c >= min && c <= max ? null : outOfRange(value, min, max);
+            };
+        }
+        return null;
+    }
+
+    private static Check intRange(int min, int max) {
+        return value -> {
+            final int i = ((Number) value).intValue();
+            return i >= min && i <= max ? null : outOfRange(value, min, max);
+        };
+    }
+
+    private static String outOfRange(Object value, Object min, Object max) {
+        return "Value " + value + " outside of range [" + min + ", " + max + "]";
+    }
+
+    static Check validator(Class<? extends ValidateWith.Validator<?>> type) {
+        final ValidateWith.Validator<Object> validator = VALIDATORS.get(type);
+        return value -> validator.test(value) ? null : validator.getMessage(value);
+    }
+
+    /**
+     * {@return a function running all the {@code checks}, stopping at the first failed one, or {@code null} if there are no checks}
+     */
+    @Nullable
+    static Function<Object, DataResult<Object>> fuse(List<Check> checks) {
+        if (checks.isEmpty()) {
+            return null;
+        } else if (checks.size() == 1) {
+            final Check check = checks.get(0);
+            return value -> {
+                final String error = check.check(value);
+                return error == null ? DataResult.success(value) : DataResult.error(error);
+            };
+        }
+        final Check[] array = checks.toArray(Check[]::new);
+        return value -> {
+            for (final Check check : array) {
+                final String error = check.check(value);
+                if (error != null) {
+                    return DataResult.error(error);
+                }
+            }
+            return DataResult.success(value);
+        };
+    }
+}
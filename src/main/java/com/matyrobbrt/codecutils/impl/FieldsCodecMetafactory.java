@@ -0,0 +1,339 @@
+package com.matyrobbrt.codecutils.impl;
+
+import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration;
+import com.matyrobbrt.codecutils.codecs.FieldsCodec;
+import com.matyrobbrt.codecutils.invoke.Metafactory;
+import com.matyrobbrt.codecutils.invoke.Reflection;
+import com.matyrobbrt.codecutils.invoke.internal.ASMUtils;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.MapLike;
+import com.mojang.serialization.RecordBuilder;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import sun.misc.Unsafe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_PROTECTED;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.F_FULL;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GETSTATIC;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.IFNE;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.ISTORE;
+import static org.objectweb.asm.Opcodes.IF_ACMPEQ;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.NEW;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.SWAP;
+
+/**
+ * Generates a {@link FieldsCodec} subclass for a type, with straight-line {@code decodeFields} and {@code encodeFields}
+ * methods that read and write the members of the type directly. <br>
+ * The generated class is a nestmate of the type, so it may access its private members.
+ * The semantics of each field (defaults, optional values, errors) are still handled by the bound fields of the codec,
+ * and primitive members are passed around unboxed.
+ */
+public final class FieldsCodecMetafactory extends Metafactory.Base {
+    private static final AtomicInteger COUNTER = new AtomicInteger(0);
+
+    private static final String FIELDS_CODEC = Type.getInternalName(FieldsCodec.class);
+    private static final String CONTEXT = Type.getInternalName(FieldsCodec.DecodingContext.class);
+    private static final String DECODE_DESC = Type.getMethodDescriptor(Type.getType(Object.class), Type.getType(DynamicOps.class), Type.getType(MapLike.class), Type.getType(FieldsCodec.DecodingContext.class));
+    private static final String ENCODE_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Object.class), Type.getType(DynamicOps.class), Type.getType(RecordBuilder.class), Type.getType(Object[].class));
+    private static final String DECODE_VALUE_DESC = "(I" + DECODE_DESC.substring(1);
+    private static final String ENCODE_VALUE_DESC = encodeValueDescriptor(Object.class);
+
+    private final Class<?> owner;
+    private final List<? extends AnnotatedElement> members;
+
+    /**
+     * @param members the members of the type, in the same order as the fields of the codec.
+     *                They must all be either {@link RecordComponent record components} or {@link Field fields}
+     */
+    public FieldsCodecMetafactory(MethodHandles.Lookup caller, Class<?> owner, List<? extends AnnotatedElement> members) {
+        super(caller, owner);
+        this.owner = owner;
+        this.members = members;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <Z> FieldsCodec<Z> create(List<FieldsCodec.BoundField<Z, ?>> fields, InstanceCreator<Z> instanceCreator, boolean singlePass, CodecCreatorConfiguration.ErrorStrategy errorStrategy) throws Throwable {
+        if (!owner.isRecord() && !(instanceCreator instanceof AllocatingInstanceCreator<Z>)) {
+            // The codecs of classes allocate the instance, and write the fields directly
+            throw new IllegalArgumentException("Codecs of classes require an allocating instance creator, but got " + instanceCreator);
+        }
+        return (FieldsCodec<Z>) buildCallSite().getTarget().invokeExact((List<?>) fields, (InstanceCreator<?>) instanceCreator, singlePass, errorStrategy);
+    }
+
+    @Override
+    protected void generateMethod(ClassWriter cw, String generatedNameDescriptor) {
+        final String ownerName = Type.getInternalName(owner);
+        if (owner.isRecord()) {
+            generateRecordDecode(cw, ownerName);
+        } else {
+            generateClassDecode(cw, ownerName, generatedNameDescriptor);
+        }
+        generateEncode(cw, ownerName, generatedNameDescriptor);
+    }
+
+    private void generateRecordDecode(ClassWriter cw, String ownerName) {
+        final MethodVisitor mv = cw.visitMethod(ACC_PROTECTED, "decodeFields", DECODE_DESC, null, new String[] {"java/lang/Throwable"});
+        mv.visitCode();
+        mv.visitTypeInsn(NEW, ownerName);
+        mv.visitInsn(DUP);
+
+        final Class<?>[] parameters = new Class<?>[members.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            final Class<?> type = ((RecordComponent) members.get(i)).getType();
+            parameters[i] = type;
+            // Failed values are null (or 0), the constructed record is discarded if the decoding failed
+            if (type.isPrimitive()) {
+                loadDecoded(mv, type, i);
+                continue;
+            }
+            loadDecoded(mv, Object.class, i);
+            if (type == Optional.class) {
+                mv.visitMethodInsn(INVOKESTATIC, "java/util/Optional", "ofNullable", "(Ljava/lang/Object;)Ljava/util/Optional;", false);
+            } else if (type != Object.class) {
+                ASMUtils.castTo(mv, type);
+            }
+        }
+
+        mv.visitMethodInsn(INVOKESPECIAL, ownerName, "<init>", MethodType.methodType(void.class, parameters).toMethodDescriptorString(), false);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void generateClassDecode(ClassWriter cw, String ownerName, String generatedNameDescriptor) {
+        final MethodVisitor mv = cw.visitMethod(ACC_PROTECTED, "decodeFields", DECODE_DESC, null, new String[] {"java/lang/Throwable"});
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKEVIRTUAL, FIELDS_CODEC, "allocate", "()Ljava/lang/Object;", false);
+        mv.visitTypeInsn(CHECKCAST, ownerName);
+        mv.visitVarInsn(ASTORE, 4);
+        mv.visitInsn(ACONST_NULL);
+        mv.visitVarInsn(ASTORE, 5);
+
+        final Object[] frameLocals = {
+                Type.getType(generatedNameDescriptor).getInternalName(), Type.getInternalName(DynamicOps.class),
+                Type.getInternalName(MapLike.class), CONTEXT, ownerName, "java/lang/Object"
+        };
+        for (int i = 0; i < members.size(); i++) {
+            final Field field = (Field) members.get(i);
+            final Class<?> type = field.getType();
+            final Label skip = new Label();
+
+            loadDecoded(mv, type.isPrimitive() ? type : Object.class, i);
+            if (type.isPrimitive()) {
+                // Primitives are decoded to slot 6, and the context tells us if they should be skipped
+                mv.visitVarInsn(Type.getType(type).getOpcode(ISTORE), 6);
+                mv.visitVarInsn(ALOAD, 3);
+                mv.visitMethodInsn(INVOKEVIRTUAL, CONTEXT, "skipped", "()Z", false);
+                mv.visitJumpInsn(IFNE, skip);
+            } else {
+                mv.visitVarInsn(ASTORE, 5);
+                mv.visitVarInsn(ALOAD, 5);
+                mv.visitFieldInsn(GETSTATIC, FIELDS_CODEC, "SKIP", "Ljava/lang/Object;");
+                mv.visitJumpInsn(IF_ACMPEQ, skip);
+            }
+
+            writeField(mv, ownerName, field);
+
+            mv.visitLabel(skip);
+            mv.visitFrame(F_FULL, frameLocals.length, frameLocals, 0, new Object[0]);
+        }
+
+        mv.visitVarInsn(ALOAD, 4);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void writeField(MethodVisitor mv, String ownerName, Field field) {
+        final Class<?> type = field.getType();
+        final Method setter = Reflection.findSetter(field);
+        if (setter != null && !Modifier.isStatic(setter.getModifiers())) {
+            mv.visitVarInsn(ALOAD, 4);
+            loadWritten(mv, type);
+            mv.visitMethodInsn(INVOKEVIRTUAL, ownerName, setter.getName(), Type.getMethodDescriptor(setter), false);
+        } else if (!Modifier.isFinal(field.getModifiers())) {
+            mv.visitVarInsn(ALOAD, 4);
+            loadWritten(mv, type);
+            mv.visitFieldInsn(PUTFIELD, ownerName, field.getName(), Type.getDescriptor(type));
+        } else {
+            // Final fields can't be written outside the constructor of the class, so use unsafe
+            final Class<?> unsafeType = type.isPrimitive() ? type : Object.class;
+            final String unsafeName = "put" + (type.isPrimitive() ? primitiveName(type) : "Object");
+            mv.visitFieldInsn(GETSTATIC, Type.getInternalName(Reflection.class), "UNSAFE", Type.getDescriptor(Unsafe.class));
+            mv.visitVarInsn(ALOAD, 4);
+            mv.visitLdcInsn(Reflection.UNSAFE.objectFieldOffset(field));
+            if (type.isPrimitive()) {
+                mv.visitVarInsn(Type.getType(type).getOpcode(ILOAD), 6);
+            } else {
+                mv.visitVarInsn(ALOAD, 5);
+                if (type == Optional.class) {
+                    mv.visitMethodInsn(INVOKESTATIC, "java/util/Optional", "ofNullable", "(Ljava/lang/Object;)Ljava/util/Optional;", false);
+                }
+            }
+            mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Unsafe.class), unsafeName,
+                    MethodType.methodType(void.class, Object.class, long.class, unsafeType).toMethodDescriptorString(), false);
+        }
+    }
+
+    private void loadWritten(MethodVisitor mv, Class<?> type) {
+        if (type.isPrimitive()) {
+            mv.visitVarInsn(Type.getType(type).getOpcode(ILOAD), 6);
+            return;
+        }
+        mv.visitVarInsn(ALOAD, 5);
+        if (type == Optional.class) {
+            mv.visitMethodInsn(INVOKESTATIC, "java/util/Optional", "ofNullable", "(Ljava/lang/Object;)Ljava/util/Optional;", false);
+        } else if (type != Object.class) {
+            ASMUtils.castTo(mv, type);
+        }
+    }
+
+    private void generateEncode(ClassWriter cw, String ownerName, String generatedNameDescriptor) {
+        final MethodVisitor mv = cw.visitMethod(ACC_PROTECTED, "encodeFields", ENCODE_DESC, null, new String[] {"java/lang/Throwable"});
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, ownerName);
+        mv.visitVarInsn(ASTORE, 5);
+
+        final Object[] frameLocals = {
+                Type.getType(generatedNameDescriptor).getInternalName(), "java/lang/Object", Type.getInternalName(DynamicOps.class),
+                Type.getInternalName(RecordBuilder.class), "[Ljava/lang/Object;", ownerName
+        };
+        for (int i = 0; i < members.size(); i++) {
+            // Each field is encoded separately, so that a failing getter only fails its own field
+            final Label start = new Label(), end = new Label(), handler = new Label(), next = new Label();
+            mv.visitTryCatchBlock(start, end, handler, "java/lang/Throwable");
+            mv.visitLabel(start);
+
+            mv.visitVarInsn(ALOAD, 0);
+            ASMUtils.pushInt(mv, i);
+            mv.visitVarInsn(ALOAD, 5);
+
+            final Class<?> type;
+            if (members.get(i) instanceof RecordComponent component) {
+                type = component.getType();
+                final Method accessor = component.getAccessor();
+                mv.visitMethodInsn(INVOKEVIRTUAL, ownerName, accessor.getName(), Type.getMethodDescriptor(accessor), false);
+            } else {
+                final Field field = (Field) members.get(i);
+                type = field.getType();
+                final Method getter = Reflection.findGetter(field);
+                if (getter != null && !Modifier.isStatic(getter.getModifiers())) {
+                    mv.visitMethodInsn(INVOKEVIRTUAL, ownerName, getter.getName(), Type.getMethodDescriptor(getter), false);
+                } else {
+                    mv.visitFieldInsn(GETFIELD, ownerName, field.getName(), Type.getDescriptor(type));
+                }
+            }
+
+            if (type == Optional.class) {
+                mv.visitInsn(ACONST_NULL);
+                mv.visitMethodInsn(INVOKEVIRTUAL, "java/util/Optional", "orElse", "(Ljava/lang/Object;)Ljava/lang/Object;", false);
+            }
+
+            // The key, from the keys array in slot 4
+            mv.visitVarInsn(ALOAD, 4);
+            ASMUtils.pushInt(mv, i);
+            mv.visitInsn(AALOAD);
+
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitVarInsn(ALOAD, 3);
+            if (type.isPrimitive()) {
+                mv.visitMethodInsn(INVOKEVIRTUAL, FIELDS_CODEC, "encode" + primitiveName(type), encodeValueDescriptor(type), false);
+            } else {
+                mv.visitMethodInsn(INVOKEVIRTUAL, FIELDS_CODEC, "encodeValue", ENCODE_VALUE_DESC, false);
+            }
+            mv.visitLabel(end);
+            mv.visitJumpInsn(GOTO, next);
+
+            mv.visitLabel(handler);
+            mv.visitFrame(F_FULL, frameLocals.length, frameLocals, 1, new Object[] {"java/lang/Throwable"});
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitInsn(SWAP);
+            mv.visitVarInsn(ALOAD, 3);
+            mv.visitMethodInsn(INVOKEVIRTUAL, FIELDS_CODEC, "encodeFailed", Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Throwable.class), Type.getType(RecordBuilder.class)), false);
+
+            mv.visitLabel(next);
+            mv.visitFrame(F_FULL, frameLocals.length, frameLocals, 0, new Object[0]);
+        }
+
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    // Primitives use the specialized helpers, while objects are decoded with decodeValue
+    private void loadDecoded(MethodVisitor mv, Class<?> type, int index) {
+        mv.visitVarInsn(ALOAD, 0);
+        ASMUtils.pushInt(mv, index);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, 3);
+        if (type.isPrimitive()) {
+            mv.visitMethodInsn(INVOKEVIRTUAL, FIELDS_CODEC, "decode" + primitiveName(type), "(I" + DECODE_DESC.substring(1, DECODE_DESC.indexOf(')') + 1) + Type.getDescriptor(type), false);
+        } else {
+            mv.visitMethodInsn(INVOKEVIRTUAL, FIELDS_CODEC, owner.isRecord() ? "decodeArgument" : "decodeValue", DECODE_VALUE_DESC, false);
+        }
+    }
+
+    private static String encodeValueDescriptor(Class<?> valueType) {
+        return Type.getMethodDescriptor(Type.VOID_TYPE, Type.INT_TYPE, Type.getType(valueType), Type.getType(Object.class), Type.getType(DynamicOps.class), Type.getType(RecordBuilder.class));
+    }
+
+    private static String primitiveName(Class<?> type) {
+        return Character.toUpperCase(type.getName().charAt(0)) + type.getName().substring(1);
+    }
+
+    @Override
+    protected MethodType getConstructorType() {
+        return MethodType.methodType(void.class, List.class, InstanceCreator.class, boolean.class, CodecCreatorConfiguration.ErrorStrategy.class);
+    }
+
+    @Override
+    protected boolean isNestmate() {
+        return true;
+    }
+
+    @Override
+    protected Class<?> getImplementedClass() {
+        return FieldsCodec.class;
+    }
+
+    @Override
+    protected String getTypeName() {
+        return "FieldsCodec";
+    }
+
+    @Override
+    protected int incrementAndGetCounter() {
+        return COUNTER.getAndIncrement();
+    }
+}
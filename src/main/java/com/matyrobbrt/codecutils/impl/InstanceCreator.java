@@ -5,6 +5,10 @@ import com.matyrobbrt.codecutils.codecs.FieldsCodec;
 public interface InstanceCreator<Z> {
     Acceptor<Z> create() throws Throwable;
 
+    default boolean supportsPartialResults() {
+        return true;
+    }
+
     interface Acceptor<Z> {
         <T> void accept(FieldsCodec.BoundField<Z, T> field, T value) throws Throwable;
         <T> void acceptPartial(FieldsCodec.BoundField<Z, T> field, T value) throws Throwable;
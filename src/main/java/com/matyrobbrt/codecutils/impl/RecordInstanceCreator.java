@@ -1,13 +1,11 @@
 package com.matyrobbrt.codecutils.impl;
 
 import com.matyrobbrt.codecutils.codecs.FieldsCodec;
+import com.matyrobbrt.codecutils.invoke.Accessors;
 import com.matyrobbrt.codecutils.invoke.ObjectCreator;
-import com.matyrobbrt.codecutils.invoke.internal.ObjectCreatorMetafactory;
-import com.matyrobbrt.codecutils.invoke.Reflection;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 
-import java.lang.invoke.CallSite;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.RecordComponent;
 import java.util.Optional;
@@ -21,19 +19,28 @@ public final class RecordInstanceCreator<R> implements InstanceCreator<R> {
         this.instantiatorFactor = instantiatorFactor;
     }
 
-    private RecordData<R> data;
-    public void buildData() throws Throwable {
-        final Object2IntMap<String> indices = new Object2IntOpenHashMap<>();
-        final RecordComponent[] components = recordClass.getRecordComponents();
-        for (int i = 0; i < components.length; i++) {
-            indices.put(components[i].getName(), i);
+    private volatile RecordData<R> data;
+    public RecordData<R> buildData() throws Throwable {
+        RecordData<R> data = this.data;
+        if (data == null) {
+            synchronized (this) {
+                data = this.data;
+                if (data == null) {
+                    final Object2IntMap<String> indices = new Object2IntOpenHashMap<>();
+                    final RecordComponent[] components = recordClass.getRecordComponents();
+                    for (int i = 0; i < components.length; i++) {
+                        indices.put(components[i].getName(), i);
+                    }
+                    this.data = data = new RecordData<>(indices, instantiatorFactor.create(recordClass));
+                }
+            }
         }
-        data = new RecordData<>(indices, instantiatorFactor.create(recordClass));
+        return data;
     }
 
     @Override
     public Acceptor<R> create() throws Throwable {
-        if (data == null) buildData();
+        final RecordData<R> data = buildData();
         final Object[] args = new Object[data.indices.size()];
         return new Acceptor<>() {
             @Override
@@ -62,6 +69,11 @@ public final class RecordInstanceCreator<R> implements InstanceCreator<R> {
         };
     }
 
+    @Override
+    public boolean supportsPartialResults() {
+        return false;
+    }
+
     public record RecordData<T>(Object2IntMap<String> indices, Instantiator<T> instantiator) {
 
     }
@@ -74,11 +86,7 @@ public final class RecordInstanceCreator<R> implements InstanceCreator<R> {
                 @SuppressWarnings("unchecked")
                 @Override
                 public <T> Instantiator<T> create(Class<T> clazz) throws Throwable {
-                    final CallSite cs = new ObjectCreatorMetafactory(
-                            Reflection.getLookup(clazz),
-                            getFullCtor(clazz)
-                    ).buildCallSite();
-                    final ObjectCreator<T> invoker = (ObjectCreator<T>) cs.getTarget().invokeExact();
+                    final ObjectCreator<T> invoker = Accessors.creator(getFullCtor(clazz));
                     return invoker::invoke;
                 }
             };
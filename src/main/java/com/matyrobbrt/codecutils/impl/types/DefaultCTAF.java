@@ -4,30 +4,38 @@ import com.google.gson.reflect.TypeToken;
 import com.matyrobbrt.codecutils.api.CodecCreator;
 import com.matyrobbrt.codecutils.api.CodecTypeAdapter;
 import com.matyrobbrt.codecutils.api.annotation.UseAsAdapter;
+import com.matyrobbrt.codecutils.invoke.MemberIndex;
 import com.matyrobbrt.codecutils.invoke.Reflection;
 import com.mojang.serialization.Codec;
 
 import javax.annotation.Nullable;
-import java.lang.reflect.Field;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Modifier;
-import java.util.Arrays;
 import java.util.Optional;
 
 public record DefaultCTAF(TypeCache cache) implements CodecTypeAdapter.Factory {
+    // Only the field is cached, as its value may not be assigned yet while the class is being initialised
+    private static final ClassValue<Optional<VarHandle>> ADAPTER_FIELD = new ClassValue<>() {
+        @Override
+        protected Optional<VarHandle> computeValue(Class<?> type) {
+            return MemberIndex.of(type).fields().stream()
+                    .filter(it -> (it.getAnnotation(UseAsAdapter.class) != null || it.getName().equals("CODEC")) && Modifier.isStatic(it.getModifiers())).findFirst()
+                    .map(Reflection::unreflect);
+        }
+    };
+
     @Nullable
     @Override
     @SuppressWarnings("unchecked")
     public <T> CodecTypeAdapter<T> create(CodecCreator creator, TypeToken<T> type) {
-        final Class<?> declaringClass = type.getRawType();
-        final Optional<Field> field = Arrays.stream(declaringClass.getDeclaredFields())
-                .filter(it -> (it.getAnnotation(UseAsAdapter.class) != null || it.getName().equals("CODEC")) && Modifier.isStatic(it.getModifiers())).findFirst();
+        final Optional<VarHandle> field = ADAPTER_FIELD.get(type.getRawType());
         if (field.isPresent()) {
-            final Object obj = Reflection.unreflect(field.get()).get();
+            final Object obj = field.get().get();
             // Let's not get recursive when computing a codec in a field named CODEC
             if (obj instanceof CodecTypeAdapter<?> typeAdapter) {
-                return cache.cachedAdapters.containsValue(typeAdapter) ? null : (CodecTypeAdapter<T>) typeAdapter;
+                return cache.isCached(typeAdapter) ? null : (CodecTypeAdapter<T>) typeAdapter;
             } else if (obj instanceof Codec<?> codec) {
-                if (codec instanceof CodecTypeAdapter.CodecFromAdapter<?> cfa && cache.cachedAdapters.containsValue(cfa.adapter())) {
+                if (codec instanceof CodecTypeAdapter.CodecFromAdapter<?> cfa && cache.isCached(cfa.adapter())) {
                     return null;
                 }
                 return (CodecTypeAdapter<T>) CodecTypeAdapter.fromCodec(codec);
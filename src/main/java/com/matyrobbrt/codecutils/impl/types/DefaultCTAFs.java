@@ -1,12 +1,16 @@
 package com.matyrobbrt.codecutils.impl.types;
 
 import com.google.gson.reflect.TypeToken;
+import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration;
 import com.matyrobbrt.codecutils.api.CodecTypeAdapter;
 import com.matyrobbrt.codecutils.api.CodecTypeAdapter.Factory.Register;
 import com.matyrobbrt.codecutils.api.annotation.CodecSerialize;
+import com.matyrobbrt.codecutils.api.DirectDecoder;
 import com.matyrobbrt.codecutils.codecs.CollectionCodec;
+import com.matyrobbrt.codecutils.codecs.DirectCodec;
 import com.matyrobbrt.codecutils.impl.CodecCreatorInternal;
 import com.matyrobbrt.codecutils.impl.CodecGenerator;
+import com.matyrobbrt.codecutils.invoke.MemberIndex;
 import com.matyrobbrt.codecutils.invoke.Reflection;
 import com.mojang.datafixers.util.Either;
 import com.mojang.datafixers.util.Pair;
@@ -20,7 +24,6 @@ import com.mojang.serialization.RecordBuilder;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumMap;
@@ -29,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.function.ToIntFunction;
@@ -43,7 +47,7 @@ public class DefaultCTAFs {
 
     @Register(rawType = Collection.class, receiveGenericCodecs = true)
     public static <T, C extends Collection<T>> Codec<C> collection(CodecCreatorInternal creator, TypeToken<C> token, Codec<T> elementCodec) {
-        return new CollectionCodec<>(elementCodec, creator.getDefaultCreators().noArgsCreator((Class<C>) token.getRawType()));
+        return new CollectionCodec<>(elementCodec, creator.getDefaultCreators().noArgsCreator((Class<C>) token.getRawType()), creator.getSettings().getErrorStrategy());
     }
 
     @Register(rawType = Either.class, receiveGenericCodecs = true)
@@ -70,7 +74,7 @@ public class DefaultCTAFs {
     public static <E extends Enum<E>> Codec<E> enumCodec(CodecCreatorInternal creator, TypeToken<E> token) throws IllegalAccessException {
         final Map<String, E> nameToVal = new HashMap<>();
         final Map<E, String> valToName = new EnumMap<>((Class<E>) token.getRawType());
-        for (final Field field : token.getRawType().getDeclaredFields()) {
+        for (final Field field : MemberIndex.of(token.getRawType()).fields()) {
             if (!field.isEnumConstant()) continue;
             final E value = (E) field.get(null);
             final String name = Optional.ofNullable(field.getAnnotation(CodecSerialize.class))
@@ -80,13 +84,24 @@ public class DefaultCTAFs {
             nameToVal.put(name, value);
             valToName.put(value, name);
         }
-        return Codec.STRING.flatXmap(str -> {
-            final E val = nameToVal.get(str);
-            if (val == null) {
-                return DataResult.error("No enum constant named " + str + " was found!");
+        return new DirectCodec<>() {
+            @Override
+            public <T> E decodeDirect(DynamicOps<T> ops, T input, ErrorSink errors) {
+                final String str = errors.unwrap(ops.getStringValue(input));
+                if (str == null) return null;
+
+                final E val = nameToVal.get(str);
+                if (val == null) {
+                    errors.error("No enum constant named " + str + " was found!");
+                }
+                return val;
+            }
+
+            @Override
+            public <T> DataResult<T> encode(E input, DynamicOps<T> ops, T prefix) {
+                return ops.mergeToPrimitive(prefix, ops.createString(valToName.get(input)));
             }
-            return DataResult.success(val);
-        }, e -> DataResult.success(valToName.get(e)));
+        };
     }
 
     @Register(rawType = Map.class, receiveGenericCodecs = true)
@@ -103,36 +118,34 @@ public class DefaultCTAFs {
 
         final MapCodec<K> key = mapCodec(keyC, "key");
         final MapCodec<V> value = mapCodec(valueC, "value");
-        return new Codec<>() {
+        final CodecCreatorConfiguration.ErrorStrategy errorStrategy = creator.getSettings().getErrorStrategy();
+        return new DirectCodec<>() {
             @Override
             public <T> DataResult<Pair<Map<K, V>, T>> decode(DynamicOps<T> ops, T input) {
-                return ops.getList(input).flatMap(consumer -> {
-                    final Map<K, V> map = (Map<K, V>) creator.getDefaultCreators().createNoArgs(token.getRawType());
-                    final List<String> errors = new ArrayList<>();
-                    consumer.accept(pairs -> {
-                        final DataResult<MapLike<T>> mapRES = ops.getMap(pairs);
-                        if (mapRES.result().isEmpty()) {
-                            errors.add(mapRES.error().orElseThrow().message());
-                            return;
-                        }
-
-                        final MapLike<T> mapR = mapRES.get().orThrow();
-                        final DataResult<K> keyR = key.decode(ops, mapR);
-                        if (keyR.result().isEmpty()) {
-                            errors.add(keyR.error().orElseThrow().message());
-                            return;
-                        }
-                        final DataResult<V> valR = value.decode(ops, mapR);
-                        if (valR.result().isEmpty()) {
-                            errors.add(valR.error().orElseThrow().message());
-                        }
-                        map.put(keyR.get().orThrow(), valR.get().orThrow());
-                    });
-                    if (!errors.isEmpty()) {
-                        return DataResult.error(String.join("; ", errors));
-                    }
-                    return DataResult.success(Pair.of(map, input));
+                return ErrorSink.decode(errorStrategy, errors -> decodeDirect(ops, input, errors)).map(map -> Pair.of(map, input));
+            }
+
+            @Override
+            public <T> Map<K, V> decodeDirect(DynamicOps<T> ops, T input, ErrorSink errors) {
+                final Consumer<Consumer<T>> entries = errors.unwrap(ops.getList(input));
+                if (entries == null) return null;
+
+                final Map<K, V> map = (Map<K, V>) creator.getDefaultCreators().createNoArgs(token.getRawType());
+                entries.accept(pairs -> {
+                    if (errors.aborted()) return;
+
+                    final MapLike<T> mapR = errors.unwrap(ops.getMap(pairs));
+                    if (mapR == null) return;
+
+                    final int errorCount = errors.errorCount();
+                    final K keyR = errors.unwrap(key.decode(ops, mapR));
+                    if (errors.errorCount() != errorCount) return;
+
+                    final V valR = errors.unwrap(value.decode(ops, mapR));
+                    if (valR == null && errors.errorCount() != errorCount) return;
+                    map.put(keyR, valR);
                 });
+                return map;
             }
 
             @Override
@@ -190,20 +203,38 @@ public class DefaultCTAFs {
             values[i] = (Enum<?>) vals[i];
         }
 
-        return CodecTypeAdapter.fromCodec(orCompressed(stringResolverCodec(nameGetter, getter).xmap(s -> (A) s, (A t) -> (S) t),
-                DefaultCTAFs.<Enum<?>>idResolverCodec(Enum::ordinal, ($$1x) -> ($$1x >= 0 && $$1x < values.length ? values[$$1x] : null), -1)
-                        .xmap((Enum<?> s) -> (A) s, (A t) -> (Enum<?>) t)));
+        // The values are all of type A, so the codecs are only cast in order to be decoded directly
+        return CodecTypeAdapter.fromCodec(orCompressed((Codec<A>) (Codec<?>) stringResolverCodec(nameGetter, getter),
+                (Codec<A>) (Codec<?>) DefaultCTAFs.<Enum<?>>idResolverCodec(Enum::ordinal, ($$1x) -> ($$1x >= 0 && $$1x < values.length ? values[$$1x] : null), -1)));
     }
 
     private static <E> Codec<E> stringResolverCodec(Function<E, String> valToName, Function<String, E> nameToVal) {
-        return Codec.STRING.flatXmap((name) -> Optional.ofNullable(nameToVal.apply(name))
-                .map(DataResult::success).orElseGet(() -> DataResult.error("Unknown element name:" + name)),
-                (val) -> Optional.ofNullable(valToName.apply(val)).map(DataResult::success)
-                        .orElseGet(() -> DataResult.error("Element with unknown name: " + val)));
+        return new DirectCodec<>() {
+            @Override
+            public <T> E decodeDirect(DynamicOps<T> ops, T input, ErrorSink errors) {
+                final String name = errors.unwrap(ops.getStringValue(input));
+                if (name == null) return null;
+
+                final E val = nameToVal.apply(name);
+                if (val == null) {
+                    errors.error("Unknown element name:" + name);
+                }
+                return val;
+            }
+
+            @Override
+            public <T> DataResult<T> encode(E val, DynamicOps<T> ops, T prefix) {
+                final String name = valToName.apply(val);
+                if (name == null) {
+                    return DataResult.error("Element with unknown name: " + val);
+                }
+                return ops.mergeToPrimitive(prefix, ops.createString(name));
+            }
+        };
     }
 
     private static <E> Codec<E> orCompressed(final Codec<E> normal, final Codec<E> compressed) {
-        return new Codec<>() {
+        return new DirectCodec<>() {
             @Override
             public <T> DataResult<T> encode(E val, DynamicOps<T> ops, T prefix) {
                 return ops.compressMaps() ? compressed.encode(val, ops, prefix) : normal.encode(val, ops, prefix);
@@ -214,6 +245,11 @@ public class DefaultCTAFs {
                 return ops.compressMaps() ? compressed.decode(ops, val) : normal.decode(ops, val);
             }
 
+            @Override
+            public <T> E decodeDirect(DynamicOps<T> ops, T val, ErrorSink errors) {
+                return DirectDecoder.decode(ops.compressMaps() ? compressed : normal, ops, val, errors);
+            }
+
             @Override
             public String toString() {
                 return normal + " orCompressed " + compressed;
@@ -222,10 +258,27 @@ public class DefaultCTAFs {
     }
 
     private static <E> Codec<E> idResolverCodec(ToIntFunction<E> idGetter, IntFunction<E> getter, int defaultIdx) {
-        return Codec.INT.flatXmap((id) -> Optional.ofNullable(getter.apply(id)).map(DataResult::success)
-                .orElseGet(() -> DataResult.error("Unknown element id: " + id)), (val) -> {
-            int idx = idGetter.applyAsInt(val);
-            return idx == defaultIdx ? DataResult.error("Element with unknown id: " + val) : DataResult.success(idx);
-        });
+        return new DirectCodec<>() {
+            @Override
+            public <T> E decodeDirect(DynamicOps<T> ops, T input, ErrorSink errors) {
+                final Number id = errors.unwrap(ops.getNumberValue(input));
+                if (id == null) return null;
+
+                final E val = getter.apply(id.intValue());
+                if (val == null) {
+                    errors.error("Unknown element id: " + id.intValue());
+                }
+                return val;
+            }
+
+            @Override
+            public <T> DataResult<T> encode(E val, DynamicOps<T> ops, T prefix) {
+                final int idx = idGetter.applyAsInt(val);
+                if (idx == defaultIdx) {
+                    return DataResult.error("Element with unknown id: " + val);
+                }
+                return ops.mergeToPrimitive(prefix, ops.createInt(idx));
+            }
+        };
     }
 }
@@ -2,55 +2,67 @@ package com.matyrobbrt.codecutils.impl.types;
 
 import com.matyrobbrt.codecutils.api.annotation.UseAsCreator;
 import com.matyrobbrt.codecutils.api.annotation.WithCreator;
+import com.matyrobbrt.codecutils.invoke.Accessors;
 import com.matyrobbrt.codecutils.invoke.Reflection;
-import com.matyrobbrt.codecutils.invoke.internal.ObjectCreatorMetafactory;
 import com.matyrobbrt.codecutils.invoke.ObjectCreator;
 
 import javax.annotation.Nullable;
-import java.lang.invoke.CallSite;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 @SuppressWarnings("unchecked")
 public final class DefaultObjectCreators {
-    private static final Object[] NO_ARGS = new Object[0];
+    private final Map<Class<?>, ObjectCreator<?>> registered = new ConcurrentHashMap<>();
+    // The default creators only depend on the class, so they are shared by all the creators
+    private static final ClassValue<ObjectCreator<?>> BY_TYPE = new ClassValue<>() {
+        @Override
+        protected ObjectCreator<?> computeValue(Class<?> type) {
+            return creator(type);
+        }
+    };
+
+    public DefaultObjectCreators() {}
 
-    private final Map<Class<?>, ObjectCreator<?>> byType = new HashMap<>();
+    /**
+     * Creates object creators starting with the creators registered to the {@code parent}.
+     */
+    public DefaultObjectCreators(DefaultObjectCreators parent) {
+        this.registered.putAll(parent.registered);
+    }
 
     public <T> T createNoArgs(Class<T> clazz) {
-        return make(clazz, NO_ARGS);
+        try {
+            return getCreator(clazz).invoke();
+        } catch (Throwable throwable) {
+            throw new RuntimeException("Exception creating object of type " + clazz + " without arguments", throwable);
+        }
     }
 
     public <T> Supplier<T> noArgsCreator(Class<T> clazz) {
-        final ObjectCreator<T> creator = (ObjectCreator<T>) byType.computeIfAbsent(clazz, this::creator);
+        final ObjectCreator<T> creator = getCreator(clazz);
         return () -> {
             try {
-                return creator.invoke(NO_ARGS);
+                return creator.invoke();
             } catch (Throwable e) {
                 throw new RuntimeException("Could not create object of type " + clazz + " without arguments", e);
             }
         };
     }
 
-    private <T> T make(Class<T> clazz, Object[] args) {
-        try {
-            return (T)byType.computeIfAbsent(clazz, this::creator).invoke(args);
-        } catch (Throwable throwable) {
-            throw new RuntimeException("Exception creating object of type " + clazz + " for arguments " + Arrays.toString(args), throwable);
-        }
+    public <T> void register(Class<T> clazz, ObjectCreator<T> creator) {
+        this.registered.put(clazz, creator);
     }
 
-    public <T> void register(Class<T> clazz, ObjectCreator<T> creator) {
-        this.byType.put(clazz, creator);
+    private <T> ObjectCreator<T> getCreator(Class<T> clazz) {
+        final ObjectCreator<?> creator = registered.get(clazz);
+        return (ObjectCreator<T>) (creator == null ? BY_TYPE.get(clazz) : creator);
     }
 
-    public <T> ObjectCreator<T> creator(Class<T> clazz) {
+    public static <T> ObjectCreator<T> creator(Class<T> clazz) {
         try {
             return creator0(clazz);
         } catch (Throwable throwable) {
@@ -59,10 +71,10 @@ public final class DefaultObjectCreators {
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private <T> ObjectCreator<T> creator0(Class<T> clazz) throws Throwable {
+    private static <T> ObjectCreator<T> creator0(Class<T> clazz) throws Throwable {
         final Constructor<T> noArgCtor = supplyOrNull(clazz::getDeclaredConstructor);
         if (noArgCtor != null) {
-            return generateCreator(noArgCtor);
+            return Accessors.creator(noArgCtor);
         }
         final WithCreator withCreator = clazz.getAnnotation(WithCreator.class);
         if (withCreator != null) {
@@ -72,23 +84,15 @@ public final class DefaultObjectCreators {
         final Method method = Reflection.findMethodMatching(clazz, it -> it.getParameterTypes().length == 0 && it.getReturnType() == clazz
                 && Modifier.isStatic(it.getModifiers()) && it.getAnnotation(UseAsCreator.class) != null);
         if (method != null) {
-            return generateCreator(method);
+            return Accessors.creator(method);
         }
 
         // Well... that was it, time for unsafe
         return args -> (T)Reflection.UNSAFE.allocateInstance(clazz);
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> ObjectCreator<T> generateCreator(Executable constructor) throws Throwable {
-        final CallSite cs = new ObjectCreatorMetafactory(
-                Reflection.getLookup(constructor.getDeclaringClass()), constructor
-        ).buildCallSite();
-        return (ObjectCreator<T>) cs.getTarget().invokeExact();
-    }
-
     @Nullable
-    private <X> X supplyOrNull(SupplierWithException<X> supplier) {
+    private static <X> X supplyOrNull(SupplierWithException<X> supplier) {
         try {
             return supplier.get();
         } catch (Throwable ignored) {
@@ -13,9 +13,13 @@ public class FallbackCTAF implements CodecTypeAdapter.Factory {
     @Override
     public <T> CodecTypeAdapter<T> create(CodecCreator creator, TypeToken<T> type) {
         try {
-            return CodecTypeAdapter.fromCodec(CodecGenerator.generateClass((CodecCreatorInternal) creator, type));
+            return generate(creator, type);
         } catch (Throwable e) {
             return null;
         }
     }
+
+    public <T> CodecTypeAdapter<T> generate(CodecCreator creator, TypeToken<T> type) throws Throwable {
+        return CodecTypeAdapter.fromCodec(CodecGenerator.generateClass((CodecCreatorInternal) creator, type));
+    }
 }
@@ -2,6 +2,7 @@ package com.matyrobbrt.codecutils.impl.types;
 
 import com.matyrobbrt.codecutils.api.CodecTypeAdapter;
 import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.DynamicOps;
 
@@ -17,4 +18,15 @@ public record FutureTypeAdapter<T>(AtomicReference<CodecTypeAdapter<T>> adapter)
     public <T1> DataResult<Pair<T, T1>> decode(DynamicOps<T1> ops, T1 input) {
         return adapter.get().decode(ops, input);
     }
+
+    @Override
+    public <T1> T decodeDirect(DynamicOps<T1> ops, T1 input, ErrorSink errors) {
+        return adapter.get().decodeDirect(ops, input, errors);
+    }
+
+    @Override
+    public Codec<T> asCodec() {
+        final CodecTypeAdapter<T> resolved = adapter.get();
+        return resolved == null ? CodecTypeAdapter.super.asCodec() : resolved.asCodec();
+    }
 }
@@ -1,5 +1,7 @@
 package com.matyrobbrt.codecutils.impl.types;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.reflect.TypeToken;
 import com.matyrobbrt.codecutils.api.CodecCreator;
 import com.matyrobbrt.codecutils.api.CodecTypeAdapter;
@@ -7,21 +9,83 @@ import com.matyrobbrt.codecutils.api.exception.CannotCreateAdapter;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 public class TypeCache {
+    private static final int MAX_CACHED_FAILURES = 512;
+
     private final CodecCreator creator;
 
-    final Map<TypeToken<?>, CodecTypeAdapter<?>> cachedAdapters = new ConcurrentHashMap<>();
+    private final Map<TypeToken<?>, CodecTypeAdapter<?>> cachedAdapters = new ConcurrentHashMap<>();
     private final Map<TypeToken<?>, CodecTypeAdapter<?>> stringLikeAdapters = new ConcurrentHashMap<>();
+    // The cached adapters of raw classes, so that looking them up doesn't need a TypeToken
+    private final ClassValue<AdapterSlot> classAdapters = new ClassValue<>() {
+        @Override
+        protected AdapterSlot computeValue(Class<?> type) {
+            return new AdapterSlot();
+        }
+    };
+    // Read-only snapshots of the cached adapters, taken when the cache is frozen
+    private volatile Map<TypeToken<?>, CodecTypeAdapter<?>> frozenAdapters = Map.of();
+    private volatile Map<TypeToken<?>, CodecTypeAdapter<?>> frozenStringLikeAdapters = Map.of();
     private final List<CodecTypeAdapter.Factory> factories = new CopyOnWriteArrayList<>();
+    @Nullable
+    private volatile FactoryIndex factoryIndex;
+
+    // Held while the configuration changes, and by the generations which can't run concurrently with others
+    private final ReentrantLock generationLock = new ReentrantLock();
+    // Changed with the configuration, so that generations started before a change don't cache the failures they find
+    private volatile int configurationVersion;
+    // The generation running in each thread, if any
+    private final ThreadLocal<Generation> generations = new ThreadLocal<>();
+    private final AtomicInteger activeGenerations = new AtomicInteger();
+    // The types being generated by any thread. Other threads wait for them instead of generating them again
+    private final Map<TypeToken<?>, InFlight> inFlightAdapters = new ConcurrentHashMap<>();
+    private final Map<TypeToken<?>, InFlight> inFlightStringLikeAdapters = new ConcurrentHashMap<>();
+    // Guards the claims the generations wait for
+    private final Object waitLock = new Object();
+    // All the adapters created or registered, including the futures of recursive adapters
+    private final Set<CodecTypeAdapter<?>> knownAdapters = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    // The types no adapter could be created for, with the cause of the failure, if any.
+    // Cleared when the factories or the registered adapters change
+    private final Cache<TypeToken<?>, Optional<Throwable>> failedAdapters = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_FAILURES).build();
+    private final Cache<TypeToken<?>, Optional<Throwable>> failedStringLikeAdapters = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_FAILURES).build();
+
+    // The adapters registered to this cache, which derived caches start with. Guarded by the generation lock
+    private final Map<TypeToken<?>, CodecTypeAdapter<?>> registeredAdapters = new HashMap<>();
+    private final Map<TypeToken<?>, CodecTypeAdapter<?>> registeredStringLikeAdapters = new HashMap<>();
+    private final List<CodecTypeAdapter.Factory> registeredFactories = new ArrayList<>();
+    // The types looked up while generating the adapter of each type, used to tell whether a derived cache can reuse it
+    private final Map<TypeToken<?>, Set<TypeToken<?>>> dependencies = new ConcurrentHashMap<>();
+
+    // The cache this cache was derived from, and the configuration overlaid on it
+    @Nullable
+    private volatile TypeCache parent;
+    private final Set<TypeToken<?>> overlaidTypes = ConcurrentHashMap.newKeySet();
+    private final Set<Class<?>> overlaidCreators = ConcurrentHashMap.newKeySet();
+    private final List<CodecTypeAdapter.Factory> overlaidFactories = new CopyOnWriteArrayList<>();
 
     private final FallbackCTAF lastResort = new FallbackCTAF();
 
@@ -30,63 +94,522 @@ public class TypeCache {
         factories.add(new DefaultCTAF(this));
     }
 
+    /**
+     * Creates a cache derived from the {@code parent}, which starts with its factories and registered adapters,
+     * and reuses its adapters unless they depend on the configuration overlaid on this cache.
+     */
+    public TypeCache(CodecCreator creator, TypeCache parent) {
+        this(creator);
+        this.parent = parent;
+        parent.generationLock.lock();
+        try {
+            // Only the registered factories are copied, as the built-in ones are bound to the parent
+            this.factories.addAll(parent.registeredFactories);
+            this.registeredFactories.addAll(parent.registeredFactories);
+            this.registeredAdapters.putAll(parent.registeredAdapters);
+            this.registeredStringLikeAdapters.putAll(parent.registeredStringLikeAdapters);
+        } finally {
+            parent.generationLock.unlock();
+        }
+        this.cachedAdapters.putAll(registeredAdapters);
+        this.stringLikeAdapters.putAll(registeredStringLikeAdapters);
+        this.knownAdapters.addAll(registeredAdapters.values());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CodecTypeAdapter<T> getAdapter(Class<T> type) {
+        final AdapterSlot slot = classAdapters.get(type);
+        final CodecTypeAdapter<?> adapter = slot.get();
+        // Lookups made while generating go through the slow path, so that they are recorded
+        return adapter == null || isGenerating() ? getAdapter(TypeToken.get(type), slot) : (CodecTypeAdapter<T>) adapter;
+    }
+
     @SuppressWarnings("unchecked")
     public <T> CodecTypeAdapter<T> getAdapter(TypeToken<T> type) {
-        final CodecTypeAdapter<?> cached = cachedAdapters.get(type);
-        if (cached == null) {
-            final FutureTypeAdapter<T> futureTypeAdapter = new FutureTypeAdapter<>(new AtomicReference<>());
-            cachedAdapters.put(type, futureTypeAdapter);
-            for (final CodecTypeAdapter.Factory factory : factories) {
-                final CodecTypeAdapter<T> adapter = factory.create(creator, type);
-                if (adapter != null) {
-                    futureTypeAdapter.adapter().set(adapter);
-                    return futureTypeAdapter;
+        if (type.getType() instanceof Class<?> clazz) {
+            final AdapterSlot slot = classAdapters.get(clazz);
+            final CodecTypeAdapter<?> adapter = slot.get();
+            return adapter == null || isGenerating() ? getAdapter(type, slot) : (CodecTypeAdapter<T>) adapter;
+        }
+        return getAdapter(type, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CodecTypeAdapter<T> getAdapter(TypeToken<T> type, @Nullable AdapterSlot slot) {
+        recordLookup(type);
+        final CodecTypeAdapter<?> frozen = frozenAdapters.get(type);
+        if (frozen != null) {
+            return (CodecTypeAdapter<T>) frozen;
+        }
+        final CodecTypeAdapter<T> adapter = getOrGenerate(type, false, this::createAdapter);
+        if (adapter == null) {
+            throw new CannotCreateAdapter(type);
+        }
+        // Adapters returned while generating might not be cached yet
+        if (slot != null && !isGenerating()) {
+            slot.set(adapter);
+        }
+        return adapter;
+    }
+
+    private <T> CodecTypeAdapter<T> createAdapter(TypeToken<T> type) {
+        final CodecTypeAdapter<T> inherited = inherit(type, false);
+        if (inherited != null) {
+            return inherited;
+        }
+        for (final CodecTypeAdapter.Factory factory : candidateFactories(type)) {
+            final CodecTypeAdapter<T> adapter = factory.create(creator, type);
+            if (adapter != null) {
+                return adapter;
+            }
+        }
+        try {
+            return lastResort.generate(creator, type);
+        } catch (Throwable e) {
+            throw new CannotCreateAdapter(type, e);
+        }
+    }
+
+    /**
+     * Gets the adapter of the given {@code type} from the cache, or generates it if not cached. <br>
+     * Adapters of different types are generated concurrently, but each type is claimed by the first thread generating it,
+     * and the other threads looking it up wait for the claim to be released. While generating an adapter,
+     * a {@link FutureTypeAdapter} is stored in the pending adapters of the thread's {@link Generation}, so that recursive
+     * types reference it, and it is replaced with the generated adapter once resolved.
+     * The pending adapters are only cached, and their claims released, when the outermost generation of the thread finishes,
+     * so that other threads can't see adapters referencing futures which aren't resolved yet. <br>
+     * Threads can end up waiting for each other, such as when they start generating two types referencing each other.
+     * One of the generations is then discarded, and restarted while holding the generation lock. The thread holding the
+     * lock is never discarded, so it always makes progress. <br>
+     * Types which no adapter can be generated for are remembered in the failures cache, so that further lookups
+     * fail without generating them again. The cause of the {@link CannotCreateAdapter} thrown by the generator is cached,
+     * and each further lookup throws a new exception with the same cause.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> CodecTypeAdapter<T> getOrGenerate(TypeToken<T> type, boolean stringLike, Function<TypeToken<T>, CodecTypeAdapter<T>> generator) {
+        final CodecTypeAdapter<?> cached = (stringLike ? stringLikeAdapters : cachedAdapters).get(type);
+        if (cached != null) {
+            return (CodecTypeAdapter<T>) cached;
+        }
+        final Generation current = generations.get();
+        if (current != null) {
+            return lookup(type, stringLike, generator, current);
+        }
+
+        boolean serialized = false;
+        while (true) {
+            if (serialized) {
+                generationLock.lock();
+            }
+            final Generation generation = new Generation(serialized, configurationVersion);
+            generations.set(generation);
+            activeGenerations.incrementAndGet();
+            boolean failed = true;
+            try {
+                final CodecTypeAdapter<T> adapter = lookup(type, stringLike, generator, generation);
+                failed = generation.isAborted();
+                if (!failed) {
+                    return adapter;
+                }
+            } catch (RuntimeException | Error e) {
+                // Factories may catch the exception unwinding a discarded generation, so the generation is checked instead
+                if (!generation.isAborted()) {
+                    throw e;
                 }
+            } finally {
+                activeGenerations.decrementAndGet();
+                generations.remove();
+                finish(generation, !failed);
+                if (generation.serialized) {
+                    generationLock.unlock();
+                }
+            }
+            serialized = true;
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> CodecTypeAdapter<T> lookup(TypeToken<T> type, boolean stringLike, Function<TypeToken<T>, CodecTypeAdapter<T>> generator, Generation generation) {
+        final Map<TypeToken<?>, InFlight> inFlight = stringLike ? inFlightStringLikeAdapters : inFlightAdapters;
+        while (true) {
+            if (generation.isAborted()) {
+                throw GenerationAborted.INSTANCE;
+            }
+            final CodecTypeAdapter<?> cached = (stringLike ? stringLikeAdapters : cachedAdapters).get(type);
+            if (cached != null) {
+                return (CodecTypeAdapter<T>) cached;
+            }
+            final Optional<Throwable> failure = (stringLike ? failedStringLikeAdapters : failedAdapters).getIfPresent(type);
+            if (failure != null) {
+                if (failure.isPresent()) throw new CannotCreateAdapter(type, failure.get());
+                return null;
+            }
+            final CodecTypeAdapter<?> pending = generation.pending(stringLike).get(type);
+            if (pending != null) {
+                return (CodecTypeAdapter<T>) pending;
             }
 
-            final CodecTypeAdapter<T> adapter = lastResort.create(creator, type);
+            final InFlight claim = new InFlight(type, stringLike, generation);
+            final InFlight existing = inFlight.putIfAbsent(type, claim);
+            if (existing == null) {
+                return generate(type, stringLike, generator, generation, claim);
+            }
+            final CodecTypeAdapter<?> adapter = await(existing, generation);
             if (adapter != null) {
-                futureTypeAdapter.adapter().set(adapter);
-                return futureTypeAdapter;
+                return (CodecTypeAdapter<T>) adapter;
             }
+            // The generation of the other thread failed, or was discarded, so the type is looked up again
+        }
+    }
 
-            cachedAdapters.remove(type);
-            throw new CannotCreateAdapter(type);
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> CodecTypeAdapter<T> generate(TypeToken<T> type, boolean stringLike, Function<TypeToken<T>, CodecTypeAdapter<T>> generator, Generation generation, InFlight claim) {
+        // Another thread might have cached the adapter before the type was claimed
+        final CodecTypeAdapter<?> cached = (stringLike ? stringLikeAdapters : cachedAdapters).get(type);
+        if (cached != null) {
+            claim.release(cached);
+            return (CodecTypeAdapter<T>) cached;
+        }
+
+        final Map<TypeToken<?>, CodecTypeAdapter<?>> pending = generation.pending(stringLike);
+        final FutureTypeAdapter<T> futureTypeAdapter = new FutureTypeAdapter<>(new AtomicReference<>());
+        generation.claims.add(claim);
+        pending.put(type, futureTypeAdapter);
+        knownAdapters.add(futureTypeAdapter);
+        CodecTypeAdapter<T> adapter = null;
+        generation.lookups.push(new HashSet<>());
+        try {
+            adapter = generator.apply(type);
+        } catch (CannotCreateAdapter e) {
+            // The failure of a dependency is kept whole, as its cause alone wouldn't say which type failed
+            fail(type, stringLike, generation, Optional.of(e.getCause() != null && e.getType().equals(type) ? e.getCause() : e));
+            throw e;
+        } finally {
+            final Set<TypeToken<?>> looked = generation.lookups.pop();
+            if (adapter != null && !looked.isEmpty()) {
+                dependencies.merge(type, Set.copyOf(looked), TypeCache::union);
+            }
+            if (adapter == null) {
+                pending.remove(type);
+                knownAdapters.remove(futureTypeAdapter);
+                // Nothing can reference an adapter which wasn't created, so the threads waiting for it can look it up again
+                claim.release(null);
+            }
+        }
+        if (adapter == null) {
+            fail(type, stringLike, generation, Optional.empty());
+            return null;
+        }
+        futureTypeAdapter.adapter().set(adapter);
+        // Only recursive references need the future, so further references use the adapter directly
+        pending.put(type, adapter);
+        knownAdapters.add(adapter);
+        return adapter;
+    }
+
+    /**
+     * Remembers that no adapter could be generated for the given {@code type}, unless the generation was discarded
+     * or the configuration changed since it started.
+     */
+    private void fail(TypeToken<?> type, boolean stringLike, Generation generation, Optional<Throwable> cause) {
+        if (generation.isAborted()) {
+            return;
+        }
+        final Cache<TypeToken<?>, Optional<Throwable>> failures = stringLike ? failedStringLikeAdapters : failedAdapters;
+        failures.put(type, cause);
+        if (generation.configurationVersion != configurationVersion) {
+            failures.invalidate(type);
+        }
+    }
+
+    /**
+     * Waits for the given {@code claim} of another generation to be released. <br>
+     * If the owner of the claim waits, directly or not, for this generation, this generation is discarded, unless it holds
+     * the generation lock, in which case the generation it waits for is discarded instead.
+     *
+     * @return the adapter of the claimed type, or {@code null} if the type must be looked up again
+     */
+    @Nullable
+    private CodecTypeAdapter<?> await(InFlight claim, Generation generation) {
+        synchronized (waitLock) {
+            final Set<Generation> visited = new HashSet<>();
+            Generation waiter = generation;
+            for (InFlight next = claim; next != null && visited.add(next.owner); next = next.owner.waitingFor) {
+                if (next.owner == generation) {
+                    (generation.serialized ? waiter : generation).aborted.complete(null);
+                    break;
+                }
+                waiter = next.owner;
+            }
+            generation.waitingFor = claim;
+        }
+        try {
+            CompletableFuture.anyOf(claim.result, generation.aborted).join();
+        } finally {
+            synchronized (waitLock) {
+                generation.waitingFor = null;
+            }
+        }
+        if (generation.isAborted()) {
+            throw GenerationAborted.INSTANCE;
+        }
+        return claim.result.getNow(null);
+    }
+
+    /**
+     * Caches the pending adapters of the outermost {@code generation} of a thread if it succeeded, and releases its claims.
+     */
+    private void finish(Generation generation, boolean succeeded) {
+        if (succeeded) {
+            // Adapters registered while generating take precedence
+            generation.pendingAdapters.forEach(cachedAdapters::putIfAbsent);
+            generation.pendingStringLikeAdapters.forEach(stringLikeAdapters::putIfAbsent);
+        } else {
+            generation.pendingAdapters.values().forEach(knownAdapters::remove);
+            generation.pendingStringLikeAdapters.values().forEach(knownAdapters::remove);
+        }
+        for (final InFlight claim : generation.claims) {
+            claim.release(succeeded ? (claim.stringLike ? stringLikeAdapters : cachedAdapters).get(claim.type) : null);
+        }
+    }
+
+    private boolean isGenerating() {
+        return activeGenerations.get() != 0 && generations.get() != null;
+    }
+
+    /**
+     * Records the lookup of the given {@code type} as a dependency of the adapter being generated, if any.
+     */
+    private void recordLookup(TypeToken<?> type) {
+        if (activeGenerations.get() == 0) {
+            return;
+        }
+        final Generation generation = generations.get();
+        if (generation != null) {
+            final Set<TypeToken<?>> looked = generation.lookups.peek();
+            if (looked != null) {
+                looked.add(type);
+            }
+        }
+    }
+
+    /**
+     * {@return the adapter the parent already has for the given {@code type}, or {@code null} if this cache has no parent,
+     * if the parent has no adapter for the type yet, or if the parent's adapter depends on the configuration overlaid on this cache}
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> CodecTypeAdapter<T> inherit(TypeToken<T> type, boolean stringLike) {
+        final TypeCache parent = this.parent;
+        if (parent == null) {
+            return null;
+        }
+        // Only the adapters the parent already has are reused, the parent never generates adapters for this cache.
+        // The frozen snapshots are copies of the cached adapters, so they don't need to be checked
+        final CodecTypeAdapter<T> adapter = (CodecTypeAdapter<T>) (stringLike ? parent.stringLikeAdapters : parent.cachedAdapters).get(type);
+        if (adapter == null) {
+            return null;
+        }
+        final Set<TypeToken<?>> dependencies = parent.dependencyClosure(type);
+        for (final TypeToken<?> dependency : dependencies) {
+            if (isOverlaid(dependency)) {
+                return null;
+            }
+        }
+        // The parent's dependencies are the dependencies of the reused adapter, for the caches derived from this one
+        this.dependencies.merge(type, dependencies, TypeCache::union);
+        return adapter;
+    }
+
+    /**
+     * {@return the given {@code type} and all the types looked up, directly or not, when generating its adapter}
+     */
+    private Set<TypeToken<?>> dependencyClosure(TypeToken<?> type) {
+        final Set<TypeToken<?>> closure = new HashSet<>();
+        final Deque<TypeToken<?>> queue = new ArrayDeque<>();
+        queue.add(type);
+        TypeToken<?> next;
+        while ((next = queue.poll()) != null) {
+            if (closure.add(next)) {
+                final Set<TypeToken<?>> direct = dependencies.get(next);
+                if (direct != null) {
+                    queue.addAll(direct);
+                }
+            }
         }
-        return (CodecTypeAdapter<T>) cached;
+        return closure;
+    }
+
+    /**
+     * {@return whether the adapter of the given {@code type} may be affected by the configuration overlaid on this cache}
+     */
+    private boolean isOverlaid(TypeToken<?> type) {
+        if (overlaidTypes.contains(type) || overlaidCreators.contains(type.getRawType())) {
+            return true;
+        }
+        for (final CodecTypeAdapter.Factory factory : overlaidFactories) {
+            final Class<?> rawType = factory.rawType();
+            if (rawType == null || rawType.isAssignableFrom(type.getRawType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> Set<T> union(Set<T> a, Set<T> b) {
+        final Set<T> union = new HashSet<>(a);
+        union.addAll(b);
+        return Set.copyOf(union);
+    }
+
+    /**
+     * Stops reusing the adapters of the parent, if this cache is derived.
+     */
+    public void detach() {
+        this.parent = null;
+    }
+
+    /**
+     * {@return whether the given {@code adapter} was created by, or registered to, this cache}
+     * This may only be called while generating an adapter.
+     */
+    boolean isCached(CodecTypeAdapter<?> adapter) {
+        return knownAdapters.contains(adapter);
+    }
+
+    /**
+     * {@return the factories which can create adapters for the given {@code type}, in priority order}
+     */
+    private List<CodecTypeAdapter.Factory> candidateFactories(TypeToken<?> type) {
+        FactoryIndex index = factoryIndex;
+        if (index == null) {
+            factoryIndex = index = new FactoryIndex(factories);
+        }
+        return index.candidates(type.getRawType());
     }
 
     public void registerFactory(CodecTypeAdapter.Factory factory) {
-        this.factories.add(factory);
+        generationLock.lock();
+        try {
+            this.factories.add(factory);
+            this.registeredFactories.add(factory);
+            this.factoryIndex = null;
+            if (parent != null) {
+                this.overlaidFactories.add(factory);
+            }
+            invalidateFailures();
+        } finally {
+            generationLock.unlock();
+        }
     }
 
     public <T> void registerAdapter(TypeToken<T> token, CodecTypeAdapter<T> adapter) {
-        this.cachedAdapters.put(token, adapter);
+        generationLock.lock();
+        try {
+            this.cachedAdapters.put(token, adapter);
+            this.registeredAdapters.put(token, adapter);
+            this.knownAdapters.add(adapter);
+            if (parent != null) {
+                this.overlaidTypes.add(token);
+            }
+            if (token.getType() instanceof Class<?> clazz) {
+                // Lookups racing with the registration can only fill the old slot
+                this.classAdapters.remove(clazz);
+            }
+            if (!frozenAdapters.isEmpty()) {
+                // Replace the snapshot so that it doesn't keep returning the previous adapter
+                frozenAdapters = Map.copyOf(cachedAdapters);
+            }
+            invalidateFailures();
+        } finally {
+            generationLock.unlock();
+        }
     }
 
     public <T> void registerStringLikeAdapter(TypeToken<T> token, CodecTypeAdapter<T> adapter) {
-        this.stringLikeAdapters.put(token, adapter);
+        generationLock.lock();
+        try {
+            this.stringLikeAdapters.put(token, adapter);
+            this.registeredStringLikeAdapters.put(token, adapter);
+            if (parent != null) {
+                this.overlaidTypes.add(token);
+            }
+            if (!frozenStringLikeAdapters.isEmpty()) {
+                frozenStringLikeAdapters = Map.copyOf(stringLikeAdapters);
+            }
+            invalidateFailures();
+        } finally {
+            generationLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the adapters depending on the given {@code type} as not reusable from the parent, as a creator was registered for it.
+     */
+    public void registerCreator(Class<?> type) {
+        if (parent != null) {
+            this.overlaidCreators.add(type);
+        }
+    }
+
+    /**
+     * Forgets the types which adapters could not be created for, as they might be adaptable after a reconfiguration. <br>
+     * This must be called while holding the generation lock. The running generations don't cache the failures they find afterwards.
+     */
+    private void invalidateFailures() {
+        configurationVersion++;
+        failedAdapters.invalidateAll();
+        failedStringLikeAdapters.invalidateAll();
     }
 
     @Nullable
     @SuppressWarnings("unchecked")
     public <T> CodecTypeAdapter<T> stringLike(TypeToken<T> type) {
-        final CodecTypeAdapter<?> cached = stringLikeAdapters.get(type);
-        if (cached == null) {
-            final FutureTypeAdapter<T> futureTypeAdapter = new FutureTypeAdapter<>(new AtomicReference<>());
-            stringLikeAdapters.put(type, futureTypeAdapter);
-            for (final CodecTypeAdapter.Factory factory : factories) {
-                final CodecTypeAdapter<T> adapter = factory.createStringLike(creator, type);
-                if (adapter != null) {
-                    futureTypeAdapter.adapter().set(adapter);
-                    return futureTypeAdapter;
-                }
+        recordLookup(type);
+        final CodecTypeAdapter<?> frozen = frozenStringLikeAdapters.get(type);
+        if (frozen != null) {
+            return (CodecTypeAdapter<T>) frozen;
+        }
+        return getOrGenerate(type, true, this::createStringLike);
+    }
+
+    @Nullable
+    private <T> CodecTypeAdapter<T> createStringLike(TypeToken<T> type) {
+        final CodecTypeAdapter<T> inherited = inherit(type, true);
+        if (inherited != null) {
+            return inherited;
+        }
+        for (final CodecTypeAdapter.Factory factory : candidateFactories(type)) {
+            final CodecTypeAdapter<T> adapter = factory.createStringLike(creator, type);
+            if (adapter != null) {
+                return adapter;
             }
+        }
+        return null;
+    }
 
-            stringLikeAdapters.remove(type);
-            return null;
+    /**
+     * Resolves the adapters of the given {@code types}, and snapshots all the cached adapters into read-only maps
+     * which are looked up before the concurrent ones. The slots of all cached raw classes are filled too. <br>
+     * Adapters can still be generated afterwards, but they are looked up after the snapshot.
+     */
+    public void freeze(Collection<TypeToken<?>> types) {
+        types.forEach(this::getAdapter);
+        generationLock.lock();
+        try {
+            cachedAdapters.forEach((type, adapter) -> {
+                if (type.getType() instanceof Class<?> clazz) {
+                    classAdapters.get(clazz).set(adapter);
+                }
+            });
+            frozenAdapters = Map.copyOf(cachedAdapters);
+            frozenStringLikeAdapters = Map.copyOf(stringLikeAdapters);
+        } finally {
+            generationLock.unlock();
         }
-        return (CodecTypeAdapter<T>) cached;
     }
 
     public void sortFactories(Object2IntMap<CodecTypeAdapter.Factory> priorities) {
@@ -97,7 +620,158 @@ public class TypeCache {
         factoryCopy.sort(Comparator.comparing(fac -> priorities.getOrDefault(fac, 0)).reversed());
 
         factoryCopy.add(0, new DefaultCTAF(this));
-        this.factories.clear();
-        this.factories.addAll(factoryCopy);
+        generationLock.lock();
+        try {
+            this.factories.clear();
+            this.factories.addAll(factoryCopy);
+            this.factoryIndex = new FactoryIndex(this.factories);
+            invalidateFailures();
+        } finally {
+            generationLock.unlock();
+        }
+    }
+
+    /**
+     * The adapters being generated by a thread, from the outermost lookup of a type which wasn't cached.
+     */
+    private static final class Generation {
+        private final boolean serialized;
+        private final int configurationVersion;
+        private final Map<TypeToken<?>, CodecTypeAdapter<?>> pendingAdapters = new HashMap<>();
+        private final Map<TypeToken<?>, CodecTypeAdapter<?>> pendingStringLikeAdapters = new HashMap<>();
+        // The types claimed by this generation, released when it finishes
+        private final List<InFlight> claims = new ArrayList<>();
+        // The types looked up by each of the adapters being generated, innermost first
+        private final Deque<Set<TypeToken<?>>> lookups = new ArrayDeque<>();
+        // Completed when the generation is discarded, as it waits for a generation waiting for it
+        private final CompletableFuture<Void> aborted = new CompletableFuture<>();
+        // The claim this generation waits for. Guarded by the wait lock
+        @Nullable
+        private InFlight waitingFor;
+
+        private Generation(boolean serialized, int configurationVersion) {
+            this.serialized = serialized;
+            this.configurationVersion = configurationVersion;
+        }
+
+        Map<TypeToken<?>, CodecTypeAdapter<?>> pending(boolean stringLike) {
+            return stringLike ? pendingStringLikeAdapters : pendingAdapters;
+        }
+
+        boolean isAborted() {
+            return aborted.isDone();
+        }
+    }
+
+    /**
+     * The claim of a generation on a type, completed with its adapter once cached,
+     * or with {@code null} if the type must be looked up again.
+     */
+    private final class InFlight {
+        private final TypeToken<?> type;
+        private final boolean stringLike;
+        private final Generation owner;
+        private final CompletableFuture<CodecTypeAdapter<?>> result = new CompletableFuture<>();
+
+        private InFlight(TypeToken<?> type, boolean stringLike, Generation owner) {
+            this.type = type;
+            this.stringLike = stringLike;
+            this.owner = owner;
+        }
+
+        void release(@Nullable CodecTypeAdapter<?> adapter) {
+            (stringLike ? inFlightStringLikeAdapters : inFlightAdapters).remove(type, this);
+            result.complete(adapter);
+        }
+    }
+
+    // Unwinds a discarded generation
+    private static final class GenerationAborted extends RuntimeException {
+        private static final GenerationAborted INSTANCE = new GenerationAborted();
+
+        private GenerationAborted() {
+            super("Adapter generation discarded", null, false, false);
+        }
+    }
+
+    // The entries of a ClassValue can outlive it until their class is unloaded, so the slots only reference the adapters
+    // weakly, letting a dropped creator be collected even if it cached adapters of long-lived classes.
+    // The adapters are kept alive by the cache as long as the creator is reachable
+    private static final class AdapterSlot {
+        private static final WeakReference<CodecTypeAdapter<?>> EMPTY = new WeakReference<>(null);
+
+        private volatile WeakReference<CodecTypeAdapter<?>> adapter = EMPTY;
+
+        @Nullable
+        CodecTypeAdapter<?> get() {
+            return adapter.get();
+        }
+
+        void set(CodecTypeAdapter<?> adapter) {
+            this.adapter = new WeakReference<>(adapter);
+        }
+    }
+
+    /**
+     * Indexes factories by the {@link CodecTypeAdapter.Factory#rawType() raw type} they declare, so that only the
+     * factories of a class and of its supertypes are consulted when creating an adapter for it. <br>
+     * Only the indices of the factories are stored on the classes, so that the factories don't outlive the index.
+     */
+    private static final class FactoryIndex extends ClassValue<int[]> {
+        private final List<CodecTypeAdapter.Factory> factories;
+        // The indices of the factories declaring each raw type
+        private final Map<Class<?>, BitSet> byRawType = new HashMap<>();
+        private final BitSet untyped = new BitSet();
+
+        private FactoryIndex(List<CodecTypeAdapter.Factory> factories) {
+            this.factories = List.copyOf(factories);
+            for (int i = 0; i < this.factories.size(); i++) {
+                final Class<?> rawType = this.factories.get(i).rawType();
+                if (rawType == null) {
+                    untyped.set(i);
+                } else {
+                    byRawType.computeIfAbsent(rawType, $ -> new BitSet()).set(i);
+                }
+            }
+        }
+
+        List<CodecTypeAdapter.Factory> candidates(Class<?> type) {
+            final int[] indices = get(type);
+            final CodecTypeAdapter.Factory[] candidates = new CodecTypeAdapter.Factory[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                candidates[i] = factories.get(indices[i]);
+            }
+            return Arrays.asList(candidates);
+        }
+
+        @Override
+        protected int[] computeValue(Class<?> type) {
+            final BitSet candidates = (BitSet) untyped.clone();
+            if (type.isArray() || type.isPrimitive()) {
+                // Arrays are covariant, so their supertypes can't be walked
+                byRawType.forEach((rawType, indices) -> {
+                    if (rawType.isAssignableFrom(type)) candidates.or(indices);
+                });
+            } else {
+                final Set<Class<?>> visited = new HashSet<>();
+                collectSuperTypes(type, candidates, visited);
+                // Interfaces don't extend Object
+                collectSuperTypes(Object.class, candidates, visited);
+            }
+            return candidates.stream().toArray();
+        }
+
+        private void collectSuperTypes(@Nullable Class<?> type, BitSet candidates, Set<Class<?>> visited) {
+            if (type == null || !visited.add(type)) return;
+
+            final BitSet indices = byRawType.get(type);
+            if (indices != null) {
+                candidates.or(indices);
+            }
+            collectSuperTypes(type.getSuperclass(), candidates, visited);
+            for (final Class<?> itf : type.getInterfaces()) {
+                collectSuperTypes(itf, candidates, visited);
+            }
+        }
     }
 }
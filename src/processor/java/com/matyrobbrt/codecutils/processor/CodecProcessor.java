@@ -0,0 +1,164 @@
+package com.matyrobbrt.codecutils.processor;
+
+import com.google.auto.service.AutoService;
+import com.matyrobbrt.codecutils.api.annotation.GenerateCodec;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Generates the codecs of {@link GenerateCodec} annotated records. <br>
+ * The generated codecs are subclasses of {@code FieldsCodec} which decode and encode the components in straight-line code,
+ * like the codecs generated at runtime. They are found by name when the codec of the record is created, so no other
+ * registration is needed. <br>
+ * The processor only references the library by name, so that it can run without the library on the processor path.
+ */
+@AutoService(Processor.class)
+@SupportedAnnotationTypes("com.matyrobbrt.codecutils.api.annotation.GenerateCodec")
+public final class CodecProcessor extends AbstractProcessor {
+    private static final String FIELDS_CODEC = "com.matyrobbrt.codecutils.codecs.FieldsCodec";
+    private static final String INSTANCE_CREATOR = "com.matyrobbrt.codecutils.impl.InstanceCreator";
+    private static final String ERROR_STRATEGY = "com.matyrobbrt.codecutils.api.CodecCreatorConfiguration.ErrorStrategy";
+    private static final String DYNAMIC_OPS = "com.mojang.serialization.DynamicOps";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.RECORD) {
+                    error("@GenerateCodec can only be used on records", element);
+                    continue;
+                }
+                if (!isAccessible(element)) {
+                    error("Records with generated codecs, and the classes enclosing them, must not be private or local", element);
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (IOException e) {
+                    error("Could not generate codec: " + e, element);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement record) throws IOException {
+        final String packageName = processingEnv.getElementUtils().getPackageOf(record).getQualifiedName().toString();
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(record).toString();
+        final String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + GenerateCodec.SUFFIX;
+        final String recordName = record.getQualifiedName().toString();
+        final List<? extends RecordComponentElement> components = record.getRecordComponents();
+
+        try (final Writer writer = processingEnv.getFiler().createSourceFile(binaryName + GenerateCodec.SUFFIX, record).openWriter()) {
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("@javax.annotation.processing.Generated(\"" + CodecProcessor.class.getName() + "\")\n");
+            writer.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+            writer.write("public final class " + simpleName + " extends " + FIELDS_CODEC + "<" + recordName + "> {\n");
+
+            writer.write("    public " + simpleName + "(java.util.List<" + FIELDS_CODEC + ".BoundField<" + recordName + ", ?>> fields, "
+                    + INSTANCE_CREATOR + "<" + recordName + "> instanceCreator, boolean singlePass, " + ERROR_STRATEGY + " errorStrategy) {\n");
+            writer.write("        super(fields, instanceCreator, singlePass, errorStrategy);\n");
+            writer.write("    }\n\n");
+
+            // Failed values are null (or 0), the constructed record is discarded if the decoding failed
+            writer.write("    @Override\n");
+            writer.write("    protected <$T> " + recordName + " decodeFields(" + DYNAMIC_OPS + "<$T> ops, com.mojang.serialization.MapLike<$T> input, "
+                    + FIELDS_CODEC + ".DecodingContext context) {\n");
+            writer.write("        return new " + recordName + "(");
+            for (int i = 0; i < components.size(); i++) {
+                final TypeMirror type = erasure(components.get(i));
+                writer.write(i == 0 ? "\n                " : ",\n                ");
+                if (type.getKind().isPrimitive()) {
+                    writer.write("decode" + primitiveName(type) + "(" + i + ", ops, input, context)");
+                } else if (isOptional(type)) {
+                    writer.write("(java.util.Optional) java.util.Optional.ofNullable(decodeArgument(" + i + ", ops, input, context))");
+                } else {
+                    writer.write("(" + sourceName(type) + ") decodeArgument(" + i + ", ops, input, context)");
+                }
+            }
+            writer.write(");\n");
+            writer.write("    }\n\n");
+
+            writer.write("    @Override\n");
+            writer.write("    protected <$T> void encodeFields(" + recordName + " input, " + DYNAMIC_OPS + "<$T> ops, com.mojang.serialization.RecordBuilder<$T> prefix, $T[] keys) {\n");
+            // Each component is encoded separately, so that a failing accessor only fails its own component
+            for (int i = 0; i < components.size(); i++) {
+                final RecordComponentElement component = components.get(i);
+                final TypeMirror type = erasure(component);
+                final String value = "input." + component.getAccessor().getSimpleName() + "()" + (isOptional(type) ? ".orElse(null)" : "");
+                final String encoder = type.getKind().isPrimitive() ? "encode" + primitiveName(type) : "encodeValue";
+                writer.write("        try {\n");
+                writer.write("            " + encoder + "(" + i + ", " + value + ", keys[" + i + "], ops, prefix);\n");
+                writer.write("        } catch (Throwable error) {\n");
+                writer.write("            encodeFailed(error, prefix);\n");
+                writer.write("        }\n");
+            }
+            writer.write("    }\n");
+            writer.write("}\n");
+        }
+    }
+
+    private TypeMirror erasure(RecordComponentElement component) {
+        return processingEnv.getTypeUtils().erasure(component.asType());
+    }
+
+    private static boolean isOptional(TypeMirror type) {
+        return type instanceof DeclaredType declared && ((TypeElement) declared.asElement()).getQualifiedName().contentEquals("java.util.Optional");
+    }
+
+    // The name of an erased type, without type annotations
+    private String sourceName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase(Locale.ROOT);
+        } else if (type instanceof ArrayType array) {
+            return sourceName(processingEnv.getTypeUtils().erasure(array.getComponentType())) + "[]";
+        } else if (type instanceof DeclaredType declared) {
+            return ((TypeElement) declared.asElement()).getQualifiedName().toString();
+        }
+        return "java.lang.Object";
+    }
+
+    private static String primitiveName(TypeMirror type) {
+        final String name = type.getKind().name();
+        return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAccessible(Element element) {
+        for (Element current = element; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE) || ((TypeElement) current).getNestingKind() == NestingKind.LOCAL) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
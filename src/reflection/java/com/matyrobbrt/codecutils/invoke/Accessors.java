@@ -0,0 +1,97 @@
+package com.matyrobbrt.codecutils.invoke;
+
+import com.matyrobbrt.codecutils.invoke.internal.ObjectCreatorMetafactory;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.lang.invoke.CallSite;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A JVM-wide cache of the accessors of the members of a class. <br>
+ * The accessors only depend on the member they access, so they are shared by all the codec creators instead of each
+ * creator generating its own. The cache of a class is stored on the class, so it is unloaded with it.
+ */
+@ApiStatus.Internal
+@SuppressWarnings("unchecked")
+public final class Accessors {
+    private static final ClassValue<Accessors> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Accessors computeValue(Class<?> type) {
+            return new Accessors();
+        }
+    };
+
+    // Record components aren't canonicalized, so their readers are keyed by their accessor method
+    private final Map<Member, FieldReader<?, ?>> readers = new ConcurrentHashMap<>();
+    private final Map<Field, FieldWriter<?, ?>> writers = new ConcurrentHashMap<>();
+    private final Map<Executable, ObjectCreator<?>> creators = new ConcurrentHashMap<>();
+
+    private Accessors() {}
+
+    /**
+     * {@return the reader of the given {@code field}}
+     * @see Reflection#findBestReadStrategy(Field)
+     */
+    public static <I, T> FieldReader<I, T> reader(Field field) throws Throwable {
+        final Map<Member, FieldReader<?, ?>> readers = ACCESSORS.get(field.getDeclaringClass()).readers;
+        FieldReader<?, ?> reader = readers.get(field);
+        if (reader == null) {
+            // Racing threads may create the reader twice, but only one of them is kept
+            reader = readers.putIfAbsent(field, Reflection.findBestReadStrategy(field));
+            if (reader == null) reader = readers.get(field);
+        }
+        return (FieldReader<I, T>) reader;
+    }
+
+    /**
+     * {@return the reader of the given record {@code component}}
+     * @see Reflection#reader(RecordComponent)
+     */
+    public static <I, T> FieldReader<I, T> reader(RecordComponent component) throws Throwable {
+        final Map<Member, FieldReader<?, ?>> readers = ACCESSORS.get(component.getDeclaringRecord()).readers;
+        final Method accessor = component.getAccessor();
+        FieldReader<?, ?> reader = readers.get(accessor);
+        if (reader == null) {
+            reader = readers.putIfAbsent(accessor, Reflection.reader(component));
+            if (reader == null) reader = readers.get(accessor);
+        }
+        return (FieldReader<I, T>) reader;
+    }
+
+    /**
+     * {@return the writer of the given {@code field}}
+     * @see Reflection#findBestWriteStrategy(Field)
+     */
+    public static <I, T> FieldWriter<I, T> writer(Field field) throws Throwable {
+        final Map<Field, FieldWriter<?, ?>> writers = ACCESSORS.get(field.getDeclaringClass()).writers;
+        FieldWriter<?, ?> writer = writers.get(field);
+        if (writer == null) {
+            writer = writers.putIfAbsent(field, Reflection.findBestWriteStrategy(field));
+            if (writer == null) writer = writers.get(field);
+        }
+        return (FieldWriter<I, T>) writer;
+    }
+
+    /**
+     * {@return an object creator invoking the given constructor or static factory method}
+     * @see ObjectCreatorMetafactory
+     */
+    public static <T> ObjectCreator<T> creator(Executable constructor) throws Throwable {
+        final Map<Executable, ObjectCreator<?>> creators = ACCESSORS.get(constructor.getDeclaringClass()).creators;
+        ObjectCreator<?> creator = creators.get(constructor);
+        if (creator == null) {
+            final CallSite cs = new ObjectCreatorMetafactory(
+                    Reflection.getLookup(constructor.getDeclaringClass()), constructor
+            ).buildCallSite();
+            creator = creators.putIfAbsent(constructor, (ObjectCreator<?>) cs.getTarget().invokeExact());
+            if (creator == null) creator = creators.get(constructor);
+        }
+        return (ObjectCreator<T>) creator;
+    }
+}
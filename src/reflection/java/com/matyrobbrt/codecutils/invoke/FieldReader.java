@@ -5,10 +5,88 @@ import java.util.Optional;
 
 @SuppressWarnings("unchecked")
 public interface FieldReader<I, T> {
+    @SuppressWarnings("rawtypes")
+    FieldReader DUMMY = instance -> {
+        throw new IllegalArgumentException("How did you get here?");
+    };
+
     @Nullable
     T read(I instance) throws Throwable;
 
     static <I, T> FieldReader<I, T> optionalUnwrap(FieldReader<I, T> reader) {
         return (instance) -> ((Optional<T>)reader.read(instance)).orElse(null);
     }
+
+    // Primitive specializations, reading the value without boxing it
+    interface OfInt<I> extends FieldReader<I, Integer> {
+        int readInt(I instance) throws Throwable;
+
+        @Override
+        default Integer read(I instance) throws Throwable {
+            return readInt(instance);
+        }
+    }
+
+    interface OfLong<I> extends FieldReader<I, Long> {
+        long readLong(I instance) throws Throwable;
+
+        @Override
+        default Long read(I instance) throws Throwable {
+            return readLong(instance);
+        }
+    }
+
+    interface OfDouble<I> extends FieldReader<I, Double> {
+        double readDouble(I instance) throws Throwable;
+
+        @Override
+        default Double read(I instance) throws Throwable {
+            return readDouble(instance);
+        }
+    }
+
+    interface OfFloat<I> extends FieldReader<I, Float> {
+        float readFloat(I instance) throws Throwable;
+
+        @Override
+        default Float read(I instance) throws Throwable {
+            return readFloat(instance);
+        }
+    }
+
+    interface OfBoolean<I> extends FieldReader<I, Boolean> {
+        boolean readBoolean(I instance) throws Throwable;
+
+        @Override
+        default Boolean read(I instance) throws Throwable {
+            return readBoolean(instance);
+        }
+    }
+
+    interface OfByte<I> extends FieldReader<I, Byte> {
+        byte readByte(I instance) throws Throwable;
+
+        @Override
+        default Byte read(I instance) throws Throwable {
+            return readByte(instance);
+        }
+    }
+
+    interface OfShort<I> extends FieldReader<I, Short> {
+        short readShort(I instance) throws Throwable;
+
+        @Override
+        default Short read(I instance) throws Throwable {
+            return readShort(instance);
+        }
+    }
+
+    interface OfChar<I> extends FieldReader<I, Character> {
+        char readChar(I instance) throws Throwable;
+
+        @Override
+        default Character read(I instance) throws Throwable {
+            return readChar(instance);
+        }
+    }
 }
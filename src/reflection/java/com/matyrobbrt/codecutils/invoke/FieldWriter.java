@@ -13,4 +13,77 @@ public interface FieldWriter<I, T> {
     static <I, T> FieldWriter<I, T> optionalWrap(FieldWriter<I, T> writer) {
         return (instance, value) -> writer.write(instance, (T) Optional.ofNullable(value));
     }
+
+    // Primitive specializations, writing the value without boxing it
+    interface OfInt<I> extends FieldWriter<I, Integer> {
+        void writeInt(I instance, int value) throws Throwable;
+
+        @Override
+        default void write(I instance, Integer value) throws Throwable {
+            writeInt(instance, value);
+        }
+    }
+
+    interface OfLong<I> extends FieldWriter<I, Long> {
+        void writeLong(I instance, long value) throws Throwable;
+
+        @Override
+        default void write(I instance, Long value) throws Throwable {
+            writeLong(instance, value);
+        }
+    }
+
+    interface OfDouble<I> extends FieldWriter<I, Double> {
+        void writeDouble(I instance, double value) throws Throwable;
+
+        @Override
+        default void write(I instance, Double value) throws Throwable {
+            writeDouble(instance, value);
+        }
+    }
+
+    interface OfFloat<I> extends FieldWriter<I, Float> {
+        void writeFloat(I instance, float value) throws Throwable;
+
+        @Override
+        default void write(I instance, Float value) throws Throwable {
+            writeFloat(instance, value);
+        }
+    }
+
+    interface OfBoolean<I> extends FieldWriter<I, Boolean> {
+        void writeBoolean(I instance, boolean value) throws Throwable;
+
+        @Override
+        default void write(I instance, Boolean value) throws Throwable {
+            writeBoolean(instance, value);
+        }
+    }
+
+    interface OfByte<I> extends FieldWriter<I, Byte> {
+        void writeByte(I instance, byte value) throws Throwable;
+
+        @Override
+        default void write(I instance, Byte value) throws Throwable {
+            writeByte(instance, value);
+        }
+    }
+
+    interface OfShort<I> extends FieldWriter<I, Short> {
+        void writeShort(I instance, short value) throws Throwable;
+
+        @Override
+        default void write(I instance, Short value) throws Throwable {
+            writeShort(instance, value);
+        }
+    }
+
+    interface OfChar<I> extends FieldWriter<I, Character> {
+        void writeChar(I instance, char value) throws Throwable;
+
+        @Override
+        default void write(I instance, Character value) throws Throwable {
+            writeChar(instance, value);
+        }
+    }
 }
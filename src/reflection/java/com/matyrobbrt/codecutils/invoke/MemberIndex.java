@@ -0,0 +1,127 @@
+package com.matyrobbrt.codecutils.invoke;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * An index of the declared members of a class, built once per class. <br>
+ * {@link Class#getDeclaredFields()} and {@link Class#getDeclaredMethods()} copy the member arrays on each call, so
+ * all the code discovering members should go through the index instead. <br>
+ * <strong>Note:</strong> the members returned by the index are shared by all its callers, so they must not be modified,
+ * in particular by {@link java.lang.reflect.AccessibleObject#setAccessible(boolean) making them accessible}. Members
+ * are accessed through {@link Reflection#TRUSTED_LOOKUP} instead, and callers which need to modify a member should
+ * {@linkplain Class#getDeclaredField(String) look up} their own copy of it.
+ */
+@ApiStatus.Internal
+public final class MemberIndex {
+    private static final ClassValue<MemberIndex> INDICES = new ClassValue<>() {
+        @Override
+        protected MemberIndex computeValue(Class<?> type) {
+            return new MemberIndex(type);
+        }
+    };
+
+    private final List<Field> fields;
+    private final List<Method> methods;
+    // The getter and setter of each field, by field name. Fields without one are absent
+    private final Map<String, Method> getters = new HashMap<>();
+    private final Map<String, Method> setters = new HashMap<>();
+
+    private MemberIndex(Class<?> type) {
+        this.fields = List.of(type.getDeclaredFields());
+        this.methods = List.of(type.getDeclaredMethods());
+
+        // The candidates keep their declaration index, so that the first declared one can be picked without searching for it
+        final Map<String, List<IndexedMethod>> byName = new HashMap<>();
+        for (int i = 0; i < methods.size(); i++) {
+            final Method method = methods.get(i);
+            if (method.getParameterCount() <= 1) {
+                byName.computeIfAbsent(method.getName(), $ -> new ArrayList<>(1)).add(new IndexedMethod(method, i));
+            }
+        }
+        for (final Field field : fields) {
+            final String capitalized = Reflection.capitalize(field.getName());
+            final Method getter = first(byName, List.of(field.getName(), "get" + capitalized),
+                    method -> method.getParameterCount() == 0 && method.getReturnType() == field.getType());
+            if (getter != null) getters.put(field.getName(), getter);
+            final Method setter = first(byName, List.of("set" + capitalized),
+                    method -> method.getParameterCount() == 1 && method.getParameterTypes()[0] == field.getType());
+            if (setter != null) setters.put(field.getName(), setter);
+        }
+    }
+
+    /**
+     * {@return the index of the given {@code type}}
+     */
+    public static MemberIndex of(Class<?> type) {
+        return INDICES.get(type);
+    }
+
+    /**
+     * {@return the declared fields of the class, which must not be modified}
+     */
+    public List<Field> fields() {
+        return fields;
+    }
+
+    /**
+     * {@return the declared methods of the class, which must not be modified}
+     */
+    public List<Method> methods() {
+        return methods;
+    }
+
+    @Nullable
+    public Method getter(Field field) {
+        return getters.get(field.getName());
+    }
+
+    @Nullable
+    public Method setter(Field field) {
+        return setters.get(field.getName());
+    }
+
+    /**
+     * {@return the first declared method matching the {@code predicate}, or {@code null} if none match}
+     */
+    @Nullable
+    public Method findMethod(Predicate<Method> predicate) {
+        for (final Method method : methods) {
+            if (predicate.test(method)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@return the first method, in declaration order, with one of the given {@code names} and matching the {@code predicate}}
+     */
+    @Nullable
+    private static Method first(Map<String, List<IndexedMethod>> byName, List<String> names, Predicate<Method> predicate) {
+        Method found = null;
+        int foundIndex = Integer.MAX_VALUE;
+        for (final String name : names) {
+            for (final IndexedMethod candidate : byName.getOrDefault(name, List.of())) {
+                if (predicate.test(candidate.method())) {
+                    if (candidate.index() < foundIndex) {
+                        found = candidate.method();
+                        foundIndex = candidate.index();
+                    }
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    private record IndexedMethod(Method method, int index) {}
+}
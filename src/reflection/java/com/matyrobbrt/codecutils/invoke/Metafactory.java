@@ -11,11 +11,12 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 
-import static java.lang.invoke.MethodHandles.Lookup.ClassOption.STRONG;
+import static java.lang.invoke.MethodHandles.Lookup.ClassOption.NESTMATE;
 import static org.objectweb.asm.Opcodes.ACC_FINAL;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ACC_SUPER;
 import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ILOAD;
 import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
 import static org.objectweb.asm.Opcodes.RETURN;
 import static org.objectweb.asm.Opcodes.V17;
@@ -37,6 +38,16 @@ public interface Metafactory {
         protected abstract Class<?> getImplementedClass();
         protected abstract void generateMethod(ClassWriter cw, String generatedNameDescriptor);
 
+        // The arguments are passed through to the super constructor
+        protected MethodType getConstructorType() {
+            return MethodType.methodType(void.class);
+        }
+
+        // Nestmates can access the private members of the owner class directly
+        protected boolean isNestmate() {
+            return false;
+        }
+
         @Override
         public CallSite buildCallSite() throws Throwable {
             final String className = className(ownerClass);
@@ -47,25 +58,33 @@ public interface Metafactory {
             ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
             MethodVisitor mv;
 
-            cw.visit(V17, ACC_PUBLIC | ACC_SUPER | ACC_FINAL, generatedNameInternal, null, "java/lang/Object", new String[] {
-                    Type.getInternalName(getImplementedClass())
-            });
+            // Interfaces are implemented, while classes are extended
+            final Class<?> implemented = getImplementedClass();
+            final String superName = implemented.isInterface() ? "java/lang/Object" : Type.getInternalName(implemented);
+            cw.visit(V17, ACC_PUBLIC | ACC_SUPER | ACC_FINAL, generatedNameInternal, null, superName,
+                    implemented.isInterface() ? new String[] {Type.getInternalName(implemented)} : null);
 
             cw.visitSource(".dynamic", null);
 
             {
-                // Add the public constructor
-                mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+                // Add the public constructor, delegating to the super one
+                final String ctorDescriptor = getConstructorType().toMethodDescriptorString();
+                mv = cw.visitMethod(ACC_PUBLIC, "<init>", ctorDescriptor, null, null);
                 mv.visitCode();
                 Label label0 = new Label();
                 mv.visitLabel(label0);
                 mv.visitVarInsn(ALOAD, 0);
-                mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+                int slot = 1;
+                for (final Type argument : Type.getArgumentTypes(ctorDescriptor)) {
+                    mv.visitVarInsn(argument.getOpcode(ILOAD), slot);
+                    slot += argument.getSize();
+                }
+                mv.visitMethodInsn(INVOKESPECIAL, superName, "<init>", ctorDescriptor, false);
                 mv.visitInsn(RETURN);
                 Label label1 = new Label();
                 mv.visitLabel(label1);
                 mv.visitLocalVariable("this", generatedNameDescriptor, null, label0, label1, 0);
-                mv.visitMaxs(1, 1);
+                mv.visitMaxs(slot, slot);
                 mv.visitEnd();
             }
 
@@ -79,11 +98,13 @@ public interface Metafactory {
                 DUMPER.dumpClass(className, bytes);
             }
 
-            final MethodHandles.Lookup lookup = caller.defineHiddenClass(bytes, false, STRONG);
+            // Not strong, so that the class can be unloaded once the instances and handles created from it are unreachable,
+            // instead of living as long as the class loader of the caller
+            final MethodHandles.Lookup lookup = isNestmate() ? caller.defineHiddenClass(bytes, false, NESTMATE) : caller.defineHiddenClass(bytes, false);
             final Class<?> clazz = lookup.lookupClass();
 
-            MethodHandle mh = caller.findConstructor(clazz, MethodType.methodType(void.class));
-            return new ConstantCallSite(mh.asType(MethodType.methodType(getImplementedClass())));
+            MethodHandle mh = caller.findConstructor(clazz, getConstructorType());
+            return new ConstantCallSite(mh.asType(getConstructorType().changeReturnType(getImplementedClass())));
         }
 
         private String className(Class<?> clazz) {
@@ -2,4 +2,26 @@ package com.matyrobbrt.codecutils.invoke;
 
 public interface MethodInvoker<T, R> {
     R invoke(T owner, Object... args);
+
+    // Fixed-arity variants, which generated invokers implement without an argument array
+
+    default R invoke(T owner) {
+        return invoke(owner, new Object[0]);
+    }
+
+    default R invoke(T owner, Object arg1) {
+        return invoke(owner, new Object[] {arg1});
+    }
+
+    default R invoke(T owner, Object arg1, Object arg2) {
+        return invoke(owner, new Object[] {arg1, arg2});
+    }
+
+    default R invoke(T owner, Object arg1, Object arg2, Object arg3) {
+        return invoke(owner, new Object[] {arg1, arg2, arg3});
+    }
+
+    default R invoke(T owner, Object arg1, Object arg2, Object arg3, Object arg4) {
+        return invoke(owner, new Object[] {arg1, arg2, arg3, arg4});
+    }
 }
@@ -3,6 +3,28 @@ package com.matyrobbrt.codecutils.invoke;
 public interface ObjectCreator<X> {
     X invoke(Object... args) throws Throwable;
 
+    // Fixed-arity variants, which generated creators implement without an argument array
+
+    default X invoke() throws Throwable {
+        return invoke(new Object[0]);
+    }
+
+    default X invoke(Object arg1) throws Throwable {
+        return invoke(new Object[] {arg1});
+    }
+
+    default X invoke(Object arg1, Object arg2) throws Throwable {
+        return invoke(new Object[] {arg1, arg2});
+    }
+
+    default X invoke(Object arg1, Object arg2, Object arg3) throws Throwable {
+        return invoke(new Object[] {arg1, arg2, arg3});
+    }
+
+    default X invoke(Object arg1, Object arg2, Object arg3, Object arg4) throws Throwable {
+        return invoke(new Object[] {arg1, arg2, arg3, arg4});
+    }
+
     default X invokeSafe(Object[] args) {
         try {
             return invoke(args);
@@ -15,14 +15,13 @@ import java.lang.invoke.VarHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
-import java.util.Arrays;
+import java.util.Map;
 import java.util.function.Predicate;
 
 @ApiStatus.Internal
-@SuppressWarnings("unchecked")
+@SuppressWarnings({"unchecked", "rawtypes"})
 public class Reflection {
     public static final Unsafe UNSAFE;
     public static final MethodHandles.Lookup TRUSTED_LOOKUP;
@@ -30,6 +29,27 @@ public class Reflection {
     public static final MethodHandle NEW_LOOKUP;
     private static final MethodHandle GET_SUPERTYPE;
 
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_READERS = Map.of(
+            int.class, FieldReader.OfInt.class,
+            long.class, FieldReader.OfLong.class,
+            double.class, FieldReader.OfDouble.class,
+            float.class, FieldReader.OfFloat.class,
+            boolean.class, FieldReader.OfBoolean.class,
+            byte.class, FieldReader.OfByte.class,
+            short.class, FieldReader.OfShort.class,
+            char.class, FieldReader.OfChar.class
+    );
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_WRITERS = Map.of(
+            int.class, FieldWriter.OfInt.class,
+            long.class, FieldWriter.OfLong.class,
+            double.class, FieldWriter.OfDouble.class,
+            float.class, FieldWriter.OfFloat.class,
+            boolean.class, FieldWriter.OfBoolean.class,
+            byte.class, FieldWriter.OfByte.class,
+            short.class, FieldWriter.OfShort.class,
+            char.class, FieldWriter.OfChar.class
+    );
+
     static {
         try {
             final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
@@ -85,96 +105,107 @@ public class Reflection {
 
     public static <I, T> FieldReader<I, T> reader(RecordComponent component) throws Throwable {
         final MethodHandles.Lookup lookup = getLookup(component.getDeclaringRecord());
-        final CallSite site = LambdaMetafactory.metafactory(lookup,
-                "read",
-                MethodType.methodType(FieldReader.class),
-                MethodType.methodType(Object.class, Object.class),
-                lookup.unreflect(component.getAccessor()),
-                MethodType.methodType(component.getType(), component.getDeclaringRecord()));
-        return (FieldReader<I, T>) site.getTarget().invokeExact();
+        return readerLambda(lookup, lookup.unreflect(component.getAccessor()), component.getDeclaringRecord(), component.getType());
+    }
+
+    @Nullable
+    public static Method findGetter(Field field) {
+        return MemberIndex.of(field.getDeclaringClass()).getter(field);
+    }
+
+    @Nullable
+    public static Method findSetter(Field field) {
+        return MemberIndex.of(field.getDeclaringClass()).setter(field);
     }
 
     public static <I, T> FieldReader<I, T> findBestReadStrategy(Field field) throws Throwable {
-        final Method getter = findMethodMatching(field.getDeclaringClass(),
-                method -> method.getParameterTypes().length == 0 && method.getReturnType() == field.getType()
-                    && (method.getName().equals(field.getName()) || method.getName().equals("get" + capitalize(field.getName()))));
+        final Method getter = findGetter(field);
         if (getter != null) {
-            if (
-                    Modifier.isProtected(getter.getModifiers()) &&
-                            !isSamePackage(getter.getDeclaringClass(), field.getDeclaringClass())
-            ) {
-                // If the getter is protected and the target class isn't in the same package as the declaring one,
-                // use direct reflection for speed, as the lambda will actually use a MH
-                getter.setAccessible(true);
-                return instance -> (T) getter.invoke(instance);
-            }
-
             final MethodHandles.Lookup lookup = getLookup(field.getDeclaringClass());
-            final CallSite site = LambdaMetafactory.metafactory(lookup,
-                    "read",
-                    MethodType.methodType(FieldReader.class),
-                    MethodType.methodType(Object.class, Object.class),
-                    lookup.unreflect(getter),
-                    MethodType.methodType(field.getType(), field.getDeclaringClass()));
-            return (FieldReader<I, T>) site.getTarget().invokeExact();
+            return readerLambda(lookup, lookup.unreflect(getter), field.getDeclaringClass(), field.getType());
         }
 
         final long offset = UNSAFE.objectFieldOffset(field);
+        final Class<?> type = field.getType();
+        if (type == int.class) {
+            return (FieldReader) (FieldReader.OfInt<I>) instance -> UNSAFE.getInt(instance, offset);
+        } else if (type == short.class) {
+            return (FieldReader) (FieldReader.OfShort<I>) instance -> UNSAFE.getShort(instance, offset);
+        } else if (type == double.class) {
+            return (FieldReader) (FieldReader.OfDouble<I>) instance -> UNSAFE.getDouble(instance, offset);
+        } else if (type == float.class) {
+            return (FieldReader) (FieldReader.OfFloat<I>) instance -> UNSAFE.getFloat(instance, offset);
+        } else if (type == boolean.class) {
+            return (FieldReader) (FieldReader.OfBoolean<I>) instance -> UNSAFE.getBoolean(instance, offset);
+        } else if (type == byte.class) {
+            return (FieldReader) (FieldReader.OfByte<I>) instance -> UNSAFE.getByte(instance, offset);
+        } else if (type == long.class) {
+            return (FieldReader) (FieldReader.OfLong<I>) instance -> UNSAFE.getLong(instance, offset);
+        } else if (type == char.class) {
+            return (FieldReader) (FieldReader.OfChar<I>) instance -> UNSAFE.getChar(instance, offset);
+        }
         return instance -> (T) UNSAFE.getObject(instance, offset);
     }
 
     @SuppressWarnings("Convert2MethodRef")
     public static <I, T> FieldWriter<I, T> findBestWriteStrategy(Field field) throws Throwable {
-        final String setterName = "set" + capitalize(field.getName());
-        final Method setter = findMethodMatching(field.getDeclaringClass(),
-                method -> method.getParameterTypes().length == 1 && method.getParameterTypes()[0] == field.getType()
-                        && method.getName().equals(setterName));
+        final Method setter = findSetter(field);
         if (setter != null) {
-            if (
-                    Modifier.isProtected(setter.getModifiers()) &&
-                            !isSamePackage(setter.getDeclaringClass(), field.getDeclaringClass())
-            ) {
-                // If the setter is protected and the target class isn't in the same package as the declaring one,
-                // use direct reflection for speed, as the lambda will actually use a MH
-                setter.setAccessible(true);
-                return (instance, value) -> setter.invoke(instance, value);
-            }
-
             final MethodHandles.Lookup lookup = getLookup(field.getDeclaringClass());
-            final CallSite site = LambdaMetafactory.metafactory(lookup,
-                    "write",
-                    MethodType.methodType(FieldWriter.class),
-                    MethodType.methodType(void.class, Object.class, Object.class),
-                    lookup.unreflect(setter),
-                    MethodType.methodType(void.class, field.getDeclaringClass(), field.getType()));
-            return (FieldWriter<I, T>) site.getTarget().invokeExact();
+            return writerLambda(lookup, lookup.unreflect(setter), field.getDeclaringClass(), field.getType());
         }
 
         final long offset = UNSAFE.objectFieldOffset(field);
-        if (field.getType() == int.class) {
-            return (instance, value) -> UNSAFE.putInt(instance, offset, (int) value);
-        } else if (field.getType() == short.class) {
-            return (instance, value) -> UNSAFE.putShort(instance, offset, (short) value);
-        } else if (field.getType() == double.class) {
-            return (instance, value) -> UNSAFE.putDouble(instance, offset, (double) value);
-        } else if (field.getType() == float.class) {
-            return (instance, value) -> UNSAFE.putFloat(instance, offset, (float) value);
-        } else if (field.getType() == boolean.class) {
-            return (instance, value) -> UNSAFE.putBoolean(instance, offset, (boolean) value);
-        } else if (field.getType() == byte.class) {
-            return (instance, value) -> UNSAFE.putShort(instance, offset, (byte) value);
-        } else if (field.getType() == long.class) {
-            return (instance, value) -> UNSAFE.putLong(instance, offset, (long) value);
+        final Class<?> type = field.getType();
+        if (type == int.class) {
+            return (FieldWriter) (FieldWriter.OfInt<I>) (instance, value) -> UNSAFE.putInt(instance, offset, value);
+        } else if (type == short.class) {
+            return (FieldWriter) (FieldWriter.OfShort<I>) (instance, value) -> UNSAFE.putShort(instance, offset, value);
+        } else if (type == double.class) {
+            return (FieldWriter) (FieldWriter.OfDouble<I>) (instance, value) -> UNSAFE.putDouble(instance, offset, value);
+        } else if (type == float.class) {
+            return (FieldWriter) (FieldWriter.OfFloat<I>) (instance, value) -> UNSAFE.putFloat(instance, offset, value);
+        } else if (type == boolean.class) {
+            return (FieldWriter) (FieldWriter.OfBoolean<I>) (instance, value) -> UNSAFE.putBoolean(instance, offset, value);
+        } else if (type == byte.class) {
+            return (FieldWriter) (FieldWriter.OfByte<I>) (instance, value) -> UNSAFE.putByte(instance, offset, value);
+        } else if (type == long.class) {
+            return (FieldWriter) (FieldWriter.OfLong<I>) (instance, value) -> UNSAFE.putLong(instance, offset, value);
+        } else if (type == char.class) {
+            return (FieldWriter) (FieldWriter.OfChar<I>) (instance, value) -> UNSAFE.putChar(instance, offset, value);
         }
         return (instance, val) -> UNSAFE.putObject(instance, offset, val);
     }
 
+    // Primitive types get a specialized reader, which doesn't box the value
+    private static <I, T> FieldReader<I, T> readerLambda(MethodHandles.Lookup lookup, MethodHandle getter, Class<?> owner, Class<?> type) throws Throwable {
+        final Class<?> readerType = type.isPrimitive() ? PRIMITIVE_READERS.get(type) : FieldReader.class;
+        final CallSite site = LambdaMetafactory.metafactory(lookup,
+                type.isPrimitive() ? "read" + capitalize(type.getName()) : "read",
+                MethodType.methodType(readerType),
+                MethodType.methodType(type.isPrimitive() ? type : Object.class, Object.class),
+                getter,
+                MethodType.methodType(type, owner));
+        return (FieldReader<I, T>) site.getTarget().invoke();
+    }
+
+    private static <I, T> FieldWriter<I, T> writerLambda(MethodHandles.Lookup lookup, MethodHandle setter, Class<?> owner, Class<?> type) throws Throwable {
+        final Class<?> writerType = type.isPrimitive() ? PRIMITIVE_WRITERS.get(type) : FieldWriter.class;
+        final CallSite site = LambdaMetafactory.metafactory(lookup,
+                type.isPrimitive() ? "write" + capitalize(type.getName()) : "write",
+                MethodType.methodType(writerType),
+                MethodType.methodType(void.class, Object.class, type.isPrimitive() ? type : Object.class),
+                setter,
+                MethodType.methodType(void.class, owner, type));
+        return (FieldWriter<I, T>) site.getTarget().invoke();
+    }
+
     @Nullable
     public static Method findMethodMatching(Class<?> clazz, Predicate<Method> predicate) {
-        return Arrays.stream(clazz.getDeclaredMethods()).filter(predicate).findFirst().orElse(null);
+        return MemberIndex.of(clazz).findMethod(predicate);
     }
 
-    private static String capitalize(String inputString) {
+    static String capitalize(String inputString) {
         final char firstLetter = inputString.charAt(0);
         final char capitalFirstLetter = Character.toUpperCase(firstLetter);
         return inputString.replace(inputString.charAt(0), capitalFirstLetter);
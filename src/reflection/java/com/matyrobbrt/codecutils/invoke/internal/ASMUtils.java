@@ -3,6 +3,7 @@ package com.matyrobbrt.codecutils.invoke.internal;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Type;
 
+import java.lang.invoke.MethodType;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -11,9 +12,15 @@ import static org.objectweb.asm.Opcodes.AALOAD;
 import static org.objectweb.asm.Opcodes.ALOAD;
 import static org.objectweb.asm.Opcodes.BIPUSH;
 import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.SIPUSH;
 
 public class ASMUtils {
+    // ObjectCreator and MethodInvoker have fixed-arity invoke methods up to this amount of arguments
+    public static final int MAX_FIXED_ARITY = 4;
+
     private static final Map<Class<?>, Consumer<MethodVisitor>> PRIMITIVE_TYPE_CASTS;
     static {
         PRIMITIVE_TYPE_CASTS = new HashMap<>(16);
@@ -46,17 +53,40 @@ public class ASMUtils {
         }
     }
 
+    public static void box(MethodVisitor visitor, Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return;
+        final Type wrapper = Type.getType(MethodType.methodType(type).wrap().returnType());
+        visitor.visitMethodInsn(INVOKESTATIC, wrapper.getInternalName(), "valueOf", Type.getMethodDescriptor(wrapper, Type.getType(type)), false);
+    }
+
+    public static void pushInt(MethodVisitor visitor, int value) {
+        if (value >= -1 && value <= 5) {
+            visitor.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            visitor.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            visitor.visitIntInsn(SIPUSH, value);
+        } else {
+            visitor.visitLdcInsn(value);
+        }
+    }
+
     public static void fillArgumentsFromOArray(MethodVisitor mv, int arrayIndex, Class<?>[] parameterTypes) {
         for (int index = 0; index < parameterTypes.length; index++) {
             mv.visitVarInsn(ALOAD, arrayIndex);
+            pushInt(mv, index);
+            mv.visitInsn(AALOAD);
 
-            if (index > 5) {
-                mv.visitIntInsn(BIPUSH, index);
-            } else {
-                mv.visitInsn(index + 3); // Equivalent to something like ICONST_index
+            final Class<?> paramType = parameterTypes[index];
+            if (paramType != Object.class) {
+                ASMUtils.castTo(mv, paramType);
             }
+        }
+    }
 
-            mv.visitInsn(AALOAD);
+    public static void fillArgumentsFromSlots(MethodVisitor mv, int firstSlot, Class<?>[] parameterTypes) {
+        for (int index = 0; index < parameterTypes.length; index++) {
+            mv.visitVarInsn(ALOAD, firstSlot + index);
 
             final Class<?> paramType = parameterTypes[index];
             if (paramType != Object.class) {
@@ -64,4 +94,8 @@ public class ASMUtils {
             }
         }
     }
+
+    public static String objectsDescriptor(int arguments) {
+        return "(" + "Ljava/lang/Object;".repeat(arguments) + ")Ljava/lang/Object;";
+    }
 }
@@ -11,6 +11,7 @@ import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ACC_VARARGS;
@@ -34,31 +35,40 @@ public class MethodInvokerMetafactory extends Metafactory.Base {
 
     @Override
     protected void generateMethod(ClassWriter cw, String generatedNameDescriptor) {
-        final String ownerName = Type.getInternalName(method.getDeclaringClass());
-        final String methodDesc = Type.getMethodDescriptor(method);
-        final String name = method.getName();
         final Class<?>[] parameterTypes = method.getParameterTypes();
-        final String invokeMethodDescriptor = "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
 
         // Generate the `invoke` method
-        final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_VARARGS, "invoke", invokeMethodDescriptor, null, null);
+        generateInvoke(cw, generatedNameDescriptor, ACC_PUBLIC | ACC_VARARGS, "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;",
+                mv -> ASMUtils.fillArgumentsFromOArray(mv, 2, parameterTypes));
+
+        if (parameterTypes.length <= ASMUtils.MAX_FIXED_ARITY) {
+            // Implement the fixed-arity variant too, so that callers knowing the arity don't need an array
+            generateInvoke(cw, generatedNameDescriptor, ACC_PUBLIC, ASMUtils.objectsDescriptor(parameterTypes.length + 1),
+                    mv -> ASMUtils.fillArgumentsFromSlots(mv, 2, parameterTypes));
+        }
+    }
+
+    private void generateInvoke(ClassWriter cw, String generatedNameDescriptor, int access, String descriptor, Consumer<MethodVisitor> argumentLoader) {
+        final String ownerName = Type.getInternalName(method.getDeclaringClass());
+
+        final MethodVisitor mv = cw.visitMethod(access, "invoke", descriptor, null, null);
         mv.visitCode();
         Label label0 = new Label();
         mv.visitLabel(label0);
-        mv.visitLabel(label0);
 
         if (!Modifier.isStatic(method.getModifiers())) {
             mv.visitIntInsn(ALOAD, 1);
             mv.visitTypeInsn(CHECKCAST, ownerName);
         }
 
-        ASMUtils.fillArgumentsFromOArray(mv, 2, parameterTypes);
+        argumentLoader.accept(mv);
 
-        // TODO this doesn't really like methods returning primitives
-        mv.visitMethodInsn(Modifier.isStatic(method.getModifiers()) ? INVOKESTATIC : (Modifier.isPublic(method.getModifiers()) ? INVOKEVIRTUAL : INVOKESPECIAL), ownerName, name, methodDesc, method.getDeclaringClass().isInterface());
+        mv.visitMethodInsn(Modifier.isStatic(method.getModifiers()) ? INVOKESTATIC : (Modifier.isPublic(method.getModifiers()) ? INVOKEVIRTUAL : INVOKESPECIAL), ownerName, method.getName(), Type.getMethodDescriptor(method), method.getDeclaringClass().isInterface());
 
         if (method.getReturnType() == void.class) {
             mv.visitInsn(ACONST_NULL);
+        } else {
+            ASMUtils.box(mv, method.getReturnType());
         }
         mv.visitInsn(ARETURN);
 
@@ -66,8 +76,6 @@ public class MethodInvokerMetafactory extends Metafactory.Base {
         mv.visitLabel(label1);
         mv.visitLocalVariable("this", generatedNameDescriptor, null, label0, label1, 0);
         mv.visitLocalVariable("owner", "Ljava/lang/Object;", null, label0, label1, 1);
-        mv.visitLocalVariable("args", "[Ljava/lang/Object;", null, label0, label1, 2);
-//        mv.visitMaxs(4 + Arrays.stream(parameterTypes).mapToInt(it -> Type.getType(it).getSize()).sum(), 3); // 4 with no args, incremented for each arg
         mv.visitMaxs(0, 0);
         mv.visitEnd();
     }
@@ -1,6 +1,7 @@
 package com.matyrobbrt.codecutils.test
 
 import com.matyrobbrt.codecutils.api.CodecCreator
+import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration
 import com.matyrobbrt.codecutils.api.annotation.CodecSerialize
 import com.matyrobbrt.codecutils.api.ops.ObjectOps
 import com.mojang.serialization.Codec
@@ -71,6 +72,36 @@ class RecordSerializationTest {
         assertThat(deserialized).hasValue(new WithOptionalPrimitives((char)0, 0))
     }
 
+    @Test
+    void "record can be deserialized in a single pass"() {
+        final codec = CodecCreator.create {
+            it.applyBuiltInConfiguration().withDecodingMode(CodecCreatorConfiguration.DecodingMode.SINGLE_PASS)
+        }.getCodec(TestRecord)
+
+        assertThat(codec.parse(ObjectOps.INSTANCE, [
+                unknownValue   : 'Ignored',
+                yetAnotherValue: ['list entry'],
+                someValue      : 'A string value',
+                anotherValue   : 12
+        ])).hasValue(new TestRecord('A string value', 12, ['list entry']))
+        assertOptional(codec.parse(ObjectOps.INSTANCE, [someValue: 'Only a string is here!']).error()).isPresent()
+    }
+
+    @Test
+    void "record error strategies report the expected errors"() {
+        assertOptional(errorsWith(CodecCreatorConfiguration.ErrorStrategy.COLLECT_ALL)).hasSize(2)
+        assertOptional(errorsWith(CodecCreatorConfiguration.ErrorStrategy.FAIL_FAST)).hasSize(1)
+        assertOptional(errorsWith(CodecCreatorConfiguration.ErrorStrategy.OPTIMISTIC)).hasSize(2)
+    }
+
+    private static List<String> errorsWith(CodecCreatorConfiguration.ErrorStrategy strategy) {
+        final codec = CodecCreator.create {
+            it.applyBuiltInConfiguration().withErrorStrategy(strategy)
+        }.getCodec(TestRecord)
+        return codec.parse(ObjectOps.INSTANCE, [someValue: 12, anotherValue: 'Not a number', yetAnotherValue: ['list entry']])
+                .error().orElseThrow().message().split('; ').toList()
+    }
+
     @POJO
     static record TestRecord(
             String someValue, int anotherValue, List<String> yetAnotherValue
@@ -7,6 +7,7 @@ import com.matyrobbrt.codecutils.api.annotation.OrEmpty
 import com.matyrobbrt.codecutils.api.annotation.Range
 import com.matyrobbrt.codecutils.api.annotation.SingleOrList
 import com.matyrobbrt.codecutils.api.ops.ObjectOps
+import com.matyrobbrt.codecutils.invoke.Accessors
 import com.mojang.serialization.Codec
 import groovy.transform.CompileStatic
 import groovy.transform.EqualsAndHashCode
@@ -23,6 +24,7 @@ import static org.assertj.core.api.Assertions.assertThat as assertOptional
 class ReflectiveSerializationTest {
     static final CodecCreator CREATOR = CodecCreator.create()
     static final Codec<TestObject> CODEC = CREATOR.getCodec(TestObject)
+    static final Codec<PrimitivesObject> PRIMITIVES_CODEC = CREATOR.getCodec(PrimitivesObject)
 
     @Test
     void "reflective codec can serialize object"() {
@@ -70,6 +72,51 @@ class ReflectiveSerializationTest {
         ]).error()).isPresent()
     }
 
+    @Test
+    void "reflective codec can serialize primitives both ways"() {
+        final object = new PrimitivesObject(Integer.MIN_VALUE + 3, Long.MAX_VALUE - 7, 12.5d, 3.25f, true, (byte) -4, (short) 1234, 'x' as char)
+        final serialized = PRIMITIVES_CODEC.encodeStart(ObjectOps.INSTANCE, object)
+        assertThat(serialized).isPresent()
+
+        assertThat(PRIMITIVES_CODEC.parse(ObjectOps.INSTANCE, serialized.result().orElseThrow())).hasValue(object)
+    }
+
+    @Test
+    void "reflective codec reports invalid primitives"() {
+        assertOptional(PRIMITIVES_CODEC.parse(ObjectOps.INSTANCE, [
+                intValue: 'not a number', longValue: 1, doubleValue: 1, floatValue: 1, booleanValue: false,
+                byteValue: 1, shortValue: 1, charValue: 'too long'
+        ]).error()).isPresent()
+    }
+
+    @Test
+    void "reflective codec uses protected accessors"() {
+        final codec = CREATOR.getCodec(ProtectedAccessors)
+        assertThat(codec.encodeStart(ObjectOps.INSTANCE, new ProtectedAccessors('abc')))
+                .hasValue([name: 'ABC'])
+        assertOptional(codec.parse(ObjectOps.INSTANCE, [name: 'XYZ']).result().orElseThrow().rawName())
+                .isEqualTo('xyz')
+    }
+
+    @Test
+    void "reflective codec encodes the other fields when a getter fails"() {
+        final object = new FailingGetters()
+        final result = CREATOR.getCodec(FailingGetters).encodeStart(ObjectOps.INSTANCE, object)
+        assertOptional(result.error().orElseThrow().message()).isEqualTo('Broken first')
+        assertOptional(object.lastRead).isTrue()
+    }
+
+    @Test
+    void "accessors are shared by creators"() {
+        final field = TestObject.getDeclaredField('stringValue')
+        assertOptional(Accessors.reader(field)).isSameAs(Accessors.reader(field))
+        assertOptional(Accessors.writer(field)).isSameAs(Accessors.writer(field))
+
+        final object = new TestObject('Some string', 12, [])
+        assertThat(CodecCreator.create().getCodec(TestObject).encodeStart(ObjectOps.INSTANCE, object))
+                .hasValue(CODEC.encodeStart(ObjectOps.INSTANCE, object).result().orElseThrow())
+    }
+
     @POJO
     @ToString
     @TupleConstructor
@@ -80,4 +127,59 @@ class ReflectiveSerializationTest {
         final @Range(intMax = 20) int intValue
         final @SingleOrList @OrEmpty List<String> listValue
     }
+
+    @POJO
+    @ToString
+    @TupleConstructor
+    @EqualsAndHashCode
+    @ExcludeFields('metaClass')
+    static class PrimitivesObject {
+        final int intValue
+        final long longValue
+        final double doubleValue
+        final float floatValue
+        final boolean booleanValue
+        final byte byteValue
+        final short shortValue
+        final char charValue
+    }
+
+    @POJO
+    @ExcludeFields('metaClass')
+    static class ProtectedAccessors {
+        private String name
+
+        ProtectedAccessors(String name) {
+            this.name = name
+        }
+
+        protected String getName() {
+            return name.toUpperCase()
+        }
+
+        protected void setName(String name) {
+            this.name = name.toLowerCase()
+        }
+
+        String rawName() {
+            return name
+        }
+    }
+
+    @POJO
+    @ExcludeFields('metaClass')
+    static class FailingGetters {
+        private int first
+        private String last = 'abc'
+        transient boolean lastRead
+
+        int getFirst() {
+            throw new IllegalStateException('Broken first')
+        }
+
+        String getLast() {
+            lastRead = true
+            return last
+        }
+    }
 }
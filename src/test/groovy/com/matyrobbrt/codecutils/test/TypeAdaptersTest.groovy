@@ -2,18 +2,29 @@ package com.matyrobbrt.codecutils.test
 
 import com.google.gson.reflect.TypeToken
 import com.matyrobbrt.codecutils.api.CodecCreator
+import com.matyrobbrt.codecutils.api.CodecCreatorConfiguration
 import com.matyrobbrt.codecutils.api.CodecTypeAdapter
 import com.matyrobbrt.codecutils.api.annotation.CodecSerialize
 import com.matyrobbrt.codecutils.api.annotation.UseAsAdapter
-import com.matyrobbrt.codecutils.impl.types.FutureTypeAdapter
+import com.matyrobbrt.codecutils.api.exception.CannotCreateAdapter
 import com.matyrobbrt.codecutils.api.ops.ObjectOps
+import com.matyrobbrt.codecutils.impl.types.FutureTypeAdapter
 import com.mojang.datafixers.util.Either
 import com.mojang.serialization.Codec
+import com.mojang.serialization.DataResult
 import groovy.transform.CompileStatic
 import groovy.transform.stc.POJO
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable
 import org.junit.jupiter.api.Test
 
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+
 import static org.assertj.core.api.Assertions.assertThat
+import static org.assertj.core.api.Assertions.catchThrowableOfType
 
 @POJO
 @CompileStatic
@@ -22,14 +33,14 @@ class TypeAdaptersTest {
 
     @Test
     void "can create adapter for object with CODEC field"() {
-        final CodecTypeAdapter<SomeThing> codec = ((FutureTypeAdapter<SomeThing>)CREATOR.getAdapter(SomeThing)).adapter().get()
+        final CodecTypeAdapter<SomeThing> codec = CREATOR.getAdapter(SomeThing)
         assertThat(codec).isInstanceOf(CodecTypeAdapter.WrappingCodec)
         assertThat(codec.asCodec()).isEqualTo(SomeThing.CODEC)
     }
 
     @Test
     void "can create adapter for object with @UseAsAdapter field"() {
-        final CodecTypeAdapter<SomeThing2> codec = ((FutureTypeAdapter<SomeThing2>)CREATOR.getAdapter(SomeThing2)).adapter().get()
+        final CodecTypeAdapter<SomeThing2> codec = CREATOR.getAdapter(SomeThing2)
         assertThat(codec).isInstanceOf(CodecTypeAdapter.WrappingCodec)
         assertThat(codec.asCodec()).isEqualTo(SomeThing2.MY_CODEC)
     }
@@ -46,6 +57,15 @@ class TypeAdaptersTest {
             .hasValue(TestEnum.OtherValue)
     }
 
+    private static final Codec<List<TestEnum>> ENUM_LIST_CODEC = CREATOR.getAdapter(new TypeToken<List<TestEnum>>() {}).asCodec()
+
+    @Test
+    void "enum list reports unknown values"() {
+        final DataResult<List<TestEnum>> result = ENUM_LIST_CODEC.parse(ObjectOps.INSTANCE, ['AValue', 'Unknown'])
+        assertThat(result.error().orElseThrow().message()).isEqualTo('No enum constant named Unknown was found!')
+        assertThat(result.error().orElseThrow().partialResult()).hasValue([TestEnum.AValue])
+    }
+
     private static final Codec<Either<Integer, String>> EITHER_CODEC = CREATOR.getAdapter(new TypeToken<Either<Integer, String>>() {}).asCodec()
 
     @Test
@@ -64,6 +84,161 @@ class TypeAdaptersTest {
             .hasValue(Either.right('some string'))
     }
 
+    @Test
+    void "recursive adapter is created once when requested concurrently"() {
+        final creator = CodecCreator.create()
+        final executor = Executors.newFixedThreadPool(8)
+        try {
+            final List<Future<CodecTypeAdapter<Node>>> futures = (0..<8).collect {
+                executor.submit({ creator.getAdapter(Node) } as Callable<CodecTypeAdapter<Node>>)
+            }
+            final adapters = futures.collect { it.get() }.toSet()
+            assertThat(adapters).hasSize(1)
+            assertThat(adapters[0].asCodec().parse(ObjectOps.INSTANCE, [name: 'root', children: [[name: 'child', children: []]]]).result())
+                    .hasValue(new Node('root', [new Node('child', [])]))
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    void "adapters of different types are generated concurrently"() {
+        // Each generation waits for the other one to start, which can't happen if they are generated one at a time
+        assertThat(generateBoth(new LatchedFactory(false))).isTrue()
+    }
+
+    @Test
+    void "threads generating types referencing each other do not wait forever"() {
+        assertThat(generateBoth(new LatchedFactory(true))).isTrue()
+    }
+
+    private static boolean generateBoth(LatchedFactory factory) {
+        final creator = CodecCreator.create { it.applyBuiltInConfiguration().withAdapterFactory(factory) }
+        final executor = Executors.newFixedThreadPool(2)
+        try {
+            final left = executor.submit({ creator.getAdapter(Left) } as Callable<CodecTypeAdapter<Left>>)
+            final right = executor.submit({ creator.getAdapter(Right) } as Callable<CodecTypeAdapter<Right>>)
+            assertThat(left.get(10, TimeUnit.SECONDS)).isSameAs(creator.getAdapter(Left))
+            assertThat(right.get(10, TimeUnit.SECONDS)).isSameAs(creator.getAdapter(Right))
+            return factory.started.await(0, TimeUnit.SECONDS)
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    void "failed adapter lookups are cached"() {
+        final creator = CodecCreator.create()
+        final first = catchThrowableOfType({ creator.getAdapter(Thread) } as ThrowingCallable, CannotCreateAdapter)
+        assertThat(first).isNotNull()
+        assertThat(first.cause).isNotNull()
+        final second = catchThrowableOfType({ creator.getAdapter(Thread) } as ThrowingCallable, CannotCreateAdapter)
+        assertThat(second).isNotSameAs(first)
+        assertThat(second.cause).isSameAs(first.cause)
+    }
+
+    @Test
+    void "class and type token lookups return the same adapter"() {
+        final creator = CodecCreator.create()
+        final adapter = creator.getAdapter(Node)
+        assertThat(creator.getAdapter(Node)).isSameAs(adapter)
+        assertThat(creator.getAdapter(TypeToken.get(Node))).isSameAs(adapter)
+    }
+
+    @Test
+    void "frozen creator keeps its adapters and can create new ones"() {
+        final creator = CodecCreator.create()
+        final adapter = creator.getAdapter(Node)
+        final listType = new TypeToken<List<Node>>() {}
+        creator.freeze(listType.type)
+        assertThat(creator.getAdapter(Node)).isSameAs(adapter)
+        assertThat(creator.getAdapter(listType)).isSameAs(creator.getAdapter(listType))
+        assertThat(creator.getAdapter(SomeThing)).isNotNull()
+    }
+
+    @Test
+    void "adapters registered after freezing replace the frozen ones"() {
+        CodecCreatorConfiguration configuration = null
+        final creator = CodecCreator.create { configuration = it.applyBuiltInConfiguration() }
+        creator.freeze(Counter)
+        final CodecTypeAdapter<Counter> adapter = CodecTypeAdapter.fromCodec(Codec.unit(new Counter(1)))
+        configuration.withAdapter(Counter, adapter)
+        assertThat(creator.getAdapter(Counter)).isSameAs(adapter)
+        assertThat(creator.getAdapter(TypeToken.get(Counter))).isSameAs(adapter)
+    }
+
+    @Test
+    void "mapped adapter chains are applied in order"() {
+        final CodecTypeAdapter<String> adapter = CodecTypeAdapter.fromCodec(Codec.INT)
+                .flatXmap({ Integer i -> i >= 0 ? DataResult.success(i) : DataResult.<Integer>error('negative') }, { Integer i -> DataResult.success(i) })
+                .xmap({ Integer i -> i * 2 }, { Integer i -> i.intdiv(2) as Integer })
+                .xmap({ Integer i -> i.toString() }, { String s -> Integer.parseInt(s) })
+        assertThat(adapter.asCodec()).isSameAs(adapter.asCodec())
+        assertThat(adapter.asCodec().parse(ObjectOps.INSTANCE, 21).result()).hasValue('42')
+        assertThat(adapter.asCodec().parse(ObjectOps.INSTANCE, -1).error()).isPresent()
+        assertThat(adapter.asCodec().encodeStart(ObjectOps.INSTANCE, '42').result()).hasValue(21)
+    }
+
+    @Test
+    void "codecs of adapters are cached"() {
+        final adapter = CREATOR.getAdapter(new TypeToken<List<Node>>() {})
+        assertThat(adapter.asCodec()).isSameAs(adapter.asCodec())
+        assertThat(CREATOR.getCodec(Node)).isSameAs(CREATOR.getCodec(Node))
+    }
+
+    @Test
+    void "resolved adapters are not wrapped in futures"() {
+        assertThat(CREATOR.getAdapter(Node)).isNotInstanceOf(FutureTypeAdapter)
+        assertThat(CREATOR.getAdapter(new TypeToken<List<Node>>() {})).isNotInstanceOf(FutureTypeAdapter)
+    }
+
+    @Test
+    void "derived creator reuses the adapters not depending on its configuration"() {
+        final parent = CodecCreator.create()
+        final nodeAdapter = parent.getAdapter(Node)
+        final derived = parent.derive {
+            it.withAdapter(Integer, CodecTypeAdapter.fromCodec(Codec.INT).xmap({ Integer i -> i.intdiv(2) as Integer }, { Integer i -> i * 2 }))
+        }
+        assertThat(derived.getAdapter(Node)).isSameAs(nodeAdapter)
+        assertThat(parent.getCodec(Counter).encodeStart(ObjectOps.INSTANCE, new Counter(21)).result()).hasValue([count: 21])
+        assertThat(derived.getCodec(Counter).encodeStart(ObjectOps.INSTANCE, new Counter(21)).result()).hasValue([count: 42])
+    }
+
+    @Test
+    void "derived creator does not generate adapters through its parent"() {
+        final parent = CodecCreator.create()
+        final derived = parent.derive {}
+        final adapter = derived.getAdapter(Counter)
+        assertThat(parent.getAdapter(Counter)).isNotSameAs(adapter)
+        assertThat(derived.getAdapter(Counter)).isSameAs(adapter)
+    }
+
+    static record Node(String name, List<Node> children) {}
+    static class Left {}
+    static class Right {}
+
+    @POJO
+    static class LatchedFactory implements CodecTypeAdapter.Factory {
+        final CountDownLatch started = new CountDownLatch(2)
+        final boolean lookUpOther
+
+        LatchedFactory(boolean lookUpOther) {
+            this.lookUpOther = lookUpOther
+        }
+
+        @Override
+        <T> CodecTypeAdapter<T> create(CodecCreator creator, TypeToken<T> type) {
+            if (type.rawType != Left && type.rawType != Right) return null
+            started.countDown()
+            if (!started.await(10, TimeUnit.SECONDS)) return null
+            if (lookUpOther) {
+                creator.getAdapter(type.rawType == Left ? Right : Left)
+            }
+            return CodecTypeAdapter.fromCodec(Codec.unit((T) type.rawType.getDeclaredConstructor().newInstance()))
+        }
+    }
+    static record Counter(Integer count) {}
+
     static record SomeThing() {
         static final Codec<SomeThing> CODEC = Codec.unit(new SomeThing())
     }
@@ -0,0 +1,98 @@
+package com.matyrobbrt.codecutils.test.annotation
+
+import com.matyrobbrt.codecutils.api.CodecCreator
+import com.matyrobbrt.codecutils.api.ops.ObjectOps
+import com.matyrobbrt.codecutils.processor.CodecProcessor
+import com.mojang.serialization.MapCodec
+import groovy.transform.CompileStatic
+import groovy.transform.stc.POJO
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+
+import javax.tools.ToolProvider
+import java.nio.file.Files
+import java.nio.file.Path
+
+import static com.matyrobbrt.codecutils.test.CustomAssertions.assertThat
+import static org.assertj.core.api.Assertions.assertThat as assertOptional
+import static org.assertj.core.api.Assertions.catchThrowable
+
+@POJO
+@CompileStatic
+class GenerateCodecTest {
+    @Test
+    void "@GenerateCodec records use the codec generated at compile time"(@TempDir Path dir) {
+        final loader = compile(dir, true, 'gen/Point.java', '''package gen;
+
+import com.matyrobbrt.codecutils.api.annotation.*;
+
+@GenerateCodec
+public record Point(int x, @CodecSerialize(serializedName = "why") @Range(intMax = 10) int y, @DefaultValue(stringValue = "none") String name, java.util.Optional<String> tag) {}
+''')
+        final Class<?> point = loader.loadClass('gen.Point')
+        final codec = CodecCreator.create().getCodec(point)
+        // The codec is the generated one, not one generated at runtime
+        assertOptional(codec).isInstanceOf(MapCodec.MapCodecCodec)
+        assertOptional(((MapCodec.MapCodecCodec) codec).codec().class).isSameAs(loader.loadClass('gen.Point$$Codec'))
+
+        final Object instance = point.getDeclaredConstructors()[0].newInstance(1, 2, 'abc', Optional.of('t'))
+        assertThat(codec.encodeStart(ObjectOps.INSTANCE, instance)).hasValue([x: 1, why: 2, name: 'abc', tag: 't'])
+        assertThat(codec.parse(ObjectOps.INSTANCE, [x: 1, why: 2])).hasValue(point.getDeclaredConstructors()[0].newInstance(1, 2, 'none', Optional.empty()))
+        assertOptional(codec.parse(ObjectOps.INSTANCE, [x: 1, why: 20, name: 'abc']).error()).isPresent()
+    }
+
+    @Test
+    void "generated codecs encode the other components when an accessor fails"(@TempDir Path dir) {
+        final loader = compile(dir, true, 'gen/Failing.java', '''package gen;
+
+@com.matyrobbrt.codecutils.api.annotation.GenerateCodec
+public record Failing(int first, String last) {
+    public static boolean lastRead;
+
+    public int first() {
+        throw new IllegalStateException("Broken first");
+    }
+
+    public String last() {
+        lastRead = true;
+        return last;
+    }
+}
+''')
+        final Class<?> failing = loader.loadClass('gen.Failing')
+        final result = CodecCreator.create().getCodec(failing).encodeStart(ObjectOps.INSTANCE, failing.getDeclaredConstructors()[0].newInstance(1, 'abc'))
+        assertOptional(result.error().orElseThrow().message()).isEqualTo('Broken first')
+        // The last component is still encoded after the first fails
+        assertOptional(failing.getField('lastRead').getBoolean(null)).isTrue()
+    }
+
+    @Test
+    void "stale generated codecs are not silently ignored"(@TempDir Path dir) {
+        // A codec generated by another version of the processor, with a constructor the library doesn't call
+        final loader = compile(dir, false, 'gen/Stale.java', '''package gen;
+
+@com.matyrobbrt.codecutils.api.annotation.GenerateCodec
+public record Stale(int x) {}
+
+final class Stale$$Codec {
+    Stale$$Codec(Object unused) {}
+}
+''')
+        final failure = catchThrowable { CodecCreator.create().getCodec(loader.loadClass('gen.Stale')) }
+        assertOptional(failure).isInstanceOf(IllegalStateException)
+        assertOptional(failure).hasCauseInstanceOf(NoSuchMethodException)
+    }
+
+    private URLClassLoader compile(Path dir, boolean process, String path, String code) {
+        final source = dir.resolve(path)
+        Files.createDirectories(source.parent)
+        Files.writeString(source, code)
+        final out = Files.createDirectories(dir.resolve('out'))
+        final List<String> args = ['-d', out.toString(), '-s', out.toString(), '-cp', System.getProperty('java.class.path')]
+        args.addAll(process ? ['-processor', CodecProcessor.name] : ['-proc:none'])
+        args.add(source.toString())
+        final compiled = ToolProvider.systemJavaCompiler.run(null, null, null, args as String[])
+        assertOptional(compiled).isZero()
+        return new URLClassLoader([out.toUri().toURL()] as URL[], getClass().classLoader)
+    }
+}
@@ -66,6 +66,16 @@ class RangeTest {
                 .isPresent()
     }
 
+    @Test
+    void "@Range is not checked when serializing if disabled"() {
+        final creator = CodecCreator.create { it.applyBuiltInConfiguration().withValidationWhenSerializing(false) }
+        final codec = creator.getCodec(RangedInt)
+        assertThat(codec.encodeStart(ObjectOps.INSTANCE, new RangedInt(36783)))
+                .hasValue([value: 36783])
+        assertOptional(codec.parse(ObjectOps.INSTANCE, [value: 220]).error())
+                .isPresent()
+    }
+
     static record RangedInt(@Range(intMin = 14, intMax = 200) int value) {}
 
     static record RangedFloat(@Range(floatMin = 44.5f, floatMax = 199.9f) float value) {}